@@ -10,6 +10,8 @@
 -- DROP TABLES (if exists) - For clean reinstall
 -- ============================================================================
 
+DROP TABLE IF EXISTS revocation_events CASCADE;
+DROP TABLE IF EXISTS scheduler_locks CASCADE;
 DROP TABLE IF EXISTS authentication_audit CASCADE;
 DROP TABLE IF EXISTS refresh_tokens CASCADE;
 DROP TABLE IF EXISTS user_roles CASCADE;
@@ -28,7 +30,7 @@ CREATE TABLE roles (
     
     -- Audit fields
     created_by VARCHAR(255),
-    created_date TIMESTAMP,
+    created_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     last_modified_by VARCHAR(255),
     last_modified_date TIMESTAMP,
     
@@ -50,7 +52,7 @@ CREATE TABLE users (
     
     -- Audit fields
     created_by VARCHAR(255),
-    created_date TIMESTAMP,
+    created_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     last_modified_by VARCHAR(255),
     last_modified_date TIMESTAMP,
     
@@ -85,7 +87,7 @@ CREATE TABLE phone (
     
     -- Audit fields
     created_by VARCHAR(255),
-    created_date TIMESTAMP,
+    created_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     last_modified_by VARCHAR(255),
     last_modified_date TIMESTAMP,
     
@@ -102,13 +104,15 @@ CREATE TABLE phone (
 
 CREATE TABLE refresh_tokens (
     id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
-    token VARCHAR(255) NOT NULL UNIQUE,
+    token_hash BYTEA NOT NULL, -- SHA-256 of the opaque token; raw tokens are never stored
     expiry_date TIMESTAMP NOT NULL,
+    family_id UUID NOT NULL, -- tokens rotated from the same login
+    consumed_at TIMESTAMP, -- set on rotation; reuse revokes the family
     user_id UUID NOT NULL,
     
     -- Audit fields
     created_by VARCHAR(255),
-    created_date TIMESTAMP,
+    created_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     last_modified_by VARCHAR(255),
     last_modified_date TIMESTAMP,
     
@@ -118,6 +122,33 @@ CREATE TABLE refresh_tokens (
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
+-- ============================================================================
+-- TABLE: scheduler_locks
+-- Description: Cluster-wide locks for scheduled jobs (one row per job)
+-- ============================================================================
+
+CREATE TABLE scheduler_locks (
+    name VARCHAR(64) PRIMARY KEY,
+    locked_until TIMESTAMP WITH TIME ZONE NOT NULL,
+    locked_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    locked_by VARCHAR(255) NOT NULL
+);
+
+-- ============================================================================
+-- TABLE: revocation_events
+-- Description: Change feed of cache invalidations polled by every node
+-- ============================================================================
+
+CREATE TABLE revocation_events (
+    seq BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(20) NOT NULL, -- USER_CHANGED | TOKEN_REVOKED
+    subject VARCHAR(255),
+    token_id VARCHAR(64),
+    expires_at TIMESTAMP WITH TIME ZONE,
+    origin VARCHAR(36) NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
 -- ============================================================================
 -- TABLE: authentication_audit
 -- Description: Audit trail for authentication events
@@ -136,7 +167,7 @@ CREATE TABLE authentication_audit (
     
     -- Audit fields
     created_by VARCHAR(255),
-    created_date TIMESTAMP,
+    created_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     last_modified_by VARCHAR(255),
     last_modified_date TIMESTAMP,
     
@@ -153,6 +184,17 @@ CREATE TABLE authentication_audit (
 -- Users indexes
 CREATE INDEX idx_users_username ON users(username);
 CREATE INDEX idx_users_is_deleted ON users(is_deleted);
+CREATE INDEX idx_users_created_date_id ON users(created_date, id);
+-- Cursor pages (getAllByCursor) key on (created_date, id) and cannot place a NULL date. A database created
+-- before created_date was mandatory (e.g. by ddl-auto: update) is backfilled with, per audited table:
+--   UPDATE users SET created_date = COALESCE(last_modified_date, CURRENT_TIMESTAMP) WHERE created_date IS NULL;
+--   ALTER TABLE users ALTER COLUMN created_date SET NOT NULL;
+-- Filter indexes (FiltersUserDTO): username prefix search runs LOWER(username) LIKE 'x%' (PREFIX_IGNORE_CASE)
+-- or username LIKE 'x%' (PREFIX), name search is a full-text match; text_pattern_ops keeps LIKE prefixes
+-- indexable under any collation
+CREATE INDEX idx_users_username_lower ON users(LOWER(username) text_pattern_ops);
+CREATE INDEX idx_users_username_pattern ON users(username text_pattern_ops);
+CREATE INDEX idx_users_name_fts ON users USING GIN (to_tsvector('simple', name));
 
 -- Roles indexes
 CREATE INDEX idx_roles_name ON roles(name);
@@ -161,13 +203,18 @@ CREATE INDEX idx_roles_is_deleted ON roles(is_deleted);
 -- Phone indexes
 CREATE INDEX idx_phone_user_id ON phone(user_id);
 CREATE INDEX idx_phone_is_deleted ON phone(is_deleted);
+CREATE INDEX idx_phone_created_date_id ON phone(created_date, id);
 
 -- Refresh tokens indexes
-CREATE INDEX idx_refresh_tokens_token ON refresh_tokens(token);
-CREATE INDEX idx_refresh_tokens_user_id ON refresh_tokens(user_id);
-CREATE INDEX idx_refresh_tokens_expiry_date ON refresh_tokens(expiry_date);
+CREATE UNIQUE INDEX ux_refresh_tokens_token_hash ON refresh_tokens(token_hash);
+CREATE INDEX idx_refresh_tokens_user_id_created_date ON refresh_tokens(user_id, created_date);
+CREATE INDEX idx_refresh_tokens_expiry_date_id ON refresh_tokens(expiry_date, id);
+CREATE INDEX idx_refresh_tokens_family_id ON refresh_tokens(family_id);
 CREATE INDEX idx_refresh_tokens_is_deleted ON refresh_tokens(is_deleted);
 
+-- Revocation feed indexes
+CREATE INDEX idx_revocation_events_created_at ON revocation_events(created_at);
+
 -- Authentication audit indexes
 CREATE INDEX idx_auth_audit_user_id ON authentication_audit(user_id);
 CREATE INDEX idx_auth_audit_event_type ON authentication_audit(event_type);
@@ -215,6 +262,8 @@ COMMENT ON TABLE user_roles IS 'Junction table for many-to-many user-role relati
 COMMENT ON TABLE phone IS 'Phone numbers associated with user accounts';
 COMMENT ON TABLE refresh_tokens IS 'JWT refresh tokens for maintaining user sessions';
 COMMENT ON TABLE authentication_audit IS 'Audit trail for all authentication events';
+COMMENT ON TABLE scheduler_locks IS 'Locks that keep scheduled jobs to one node';
+COMMENT ON TABLE revocation_events IS 'Invalidations propagated to the in-memory caches of every node';
 
 -- ============================================================================
 -- END OF SCHEMA
@@ -0,0 +1,56 @@
+// k6 load test: compares platform vs virtual threads under a login storm.
+//
+//   k6 run -e BASE_URL=http://localhost:8080/api/v1/api/v1 docs/loadtest/login-storm.js
+//
+// Run once against the app started with SPRING_PROFILES_ACTIVE=dev and once with
+// SPRING_PROFILES_ACTIVE=dev,virtual, on the same machine, and compare the summaries
+// (http_reqs rate, http_req_duration p95/p99 per endpoint, http_req_failed).
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080/api/v1/api/v1';
+const USERNAME = __ENV.USERNAME || 'admin@admin.com';
+const PASSWORD = __ENV.PASSWORD || 'admin';
+const CONNECTIONS = Number(__ENV.CONNECTIONS || 10000);
+
+export const options = {
+    scenarios: {
+        // Most connections hit a cheap authenticated endpoint...
+        reads: {
+            executor: 'constant-vus',
+            vus: Math.floor(CONNECTIONS * 0.9),
+            duration: __ENV.DURATION || '2m',
+            exec: 'listUsers',
+        },
+        // ...while the rest keep the password hashing pool saturated
+        logins: {
+            executor: 'constant-vus',
+            vus: Math.ceil(CONNECTIONS * 0.1),
+            duration: __ENV.DURATION || '2m',
+            exec: 'login',
+        },
+    },
+    thresholds: {
+        'http_req_duration{scenario:reads}': ['p(95)<500'],
+    },
+};
+
+export function setup() {
+    const res = http.post(`${BASE_URL}/auth/authenticate`,
+        JSON.stringify({ username: USERNAME, password: PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    return { token: res.json('accessToken') };
+}
+
+export function listUsers(data) {
+    const res = http.get(`${BASE_URL}/users`, { headers: { Authorization: `Bearer ${data.token}` } });
+    check(res, { 'users 200': (r) => r.status === 200 });
+}
+
+export function login() {
+    const res = http.post(`${BASE_URL}/auth/authenticate`,
+        JSON.stringify({ username: USERNAME, password: PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    // 503 is the expected fast-fail when the hashing pool is full
+    check(res, { 'login 200 or 503': (r) => r.status === 200 || r.status === 503 });
+}
@@ -0,0 +1,59 @@
+package com.ntt.prueba.benchmark;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ntt.prueba.auth.audit.AuditEvent;
+import com.ntt.prueba.auth.entity.Role;
+import com.ntt.prueba.auth.entity.User;
+import com.ntt.prueba.security.JwtService;
+
+/**
+ * SHA-256 hashing of an access token, as done for every audit record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditEventBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 600000L);
+        ReflectionTestUtils.setField(jwtService, "jwtRefreshExpiration", 604800000L);
+        jwtService.reloadSecret(SECRET);
+
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .username("bench@example.com")
+                .name("Bench User")
+                .roles(List.of(Role.builder().name("USER").build()))
+                .build();
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String hashToken() {
+        return AuditEvent.hashToken(token);
+    }
+}
@@ -0,0 +1,113 @@
+package com.ntt.prueba.benchmark;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ntt.prueba.auth.entity.Role;
+import com.ntt.prueba.auth.entity.User;
+import com.ntt.prueba.security.JwtAuthenticationFilter;
+import com.ntt.prueba.security.JwtService;
+import com.ntt.prueba.security.SubjectRevocationList;
+import com.ntt.prueba.security.TokenDenyList;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Full pass of the JWT filter for an authenticated request against a mock
+ * filter chain. The user lookup is an in-memory stub so only the filter's own
+ * work is measured; {@code claimsTrusted} toggles the claims-only mode. The
+ * access-token deny list holds 100k revoked ids. {@code doFilterPublicEndpoint}
+ * sends the same header to a public path, which the filter skips.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    @Param({ "false", "true" })
+    public boolean claimsTrusted;
+
+    private JwtAuthenticationFilter filter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 600000L);
+        ReflectionTestUtils.setField(jwtService, "jwtRefreshExpiration", 604800000L);
+        jwtService.reloadSecret(SECRET);
+
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .username("bench@example.com")
+                .name("Bench User")
+                .roles(List.of(Role.builder().name("USER").build()))
+                .build();
+        authorizationHeader = "Bearer " + jwtService.generateToken(user);
+
+        UserDetails userDetails = org.springframework.security.core.userdetails.User.withUsername("bench@example.com")
+                .password("encoded")
+                .roles("USER")
+                .build();
+        UserDetailsService userDetailsService = username -> userDetails;
+
+        SubjectRevocationList revocationList = new SubjectRevocationList();
+        ReflectionTestUtils.setField(revocationList, "jwtExpiration", 600000L);
+
+        // A populated deny list, so the per-request revocation check is measured at a realistic size
+        TokenDenyList denyList = new TokenDenyList(1024, new SimpleMeterRegistry());
+        Instant expiresAt = Instant.now().plusSeconds(600);
+        for (int i = 0; i < 100_000; i++) {
+            denyList.revoke(UUID.randomUUID().toString(), expiresAt);
+        }
+
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, revocationList, denyList);
+        ReflectionTestUtils.setField(filter, "claimsTrusted", claimsTrusted);
+    }
+
+    @Benchmark
+    public MockHttpServletRequest doFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users");
+        request.addHeader("Authorization", authorizationHeader);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return request;
+    }
+
+    @Benchmark
+    public MockHttpServletRequest doFilterPublicEndpoint() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/refresh-token");
+        request.addHeader("Authorization", authorizationHeader);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return request;
+    }
+}
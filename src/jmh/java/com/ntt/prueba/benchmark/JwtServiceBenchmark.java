@@ -0,0 +1,112 @@
+package com.ntt.prueba.benchmark;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ntt.prueba.auth.entity.Role;
+import com.ntt.prueba.auth.entity.User;
+import com.ntt.prueba.security.JwtService;
+import com.ntt.prueba.security.ParsedToken;
+import com.ntt.prueba.security.VerifiedTokenCache;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Token issuing, and token parsing with the cached key material compared
+ * against the previous behaviour of rebuilding the HMAC key and parser on
+ * every call, against a hit in the verified-token cache, and against the
+ * in-place reader used for bearer headers. Compare allocations with the
+ * {@code gc.alloc.rate.norm} column.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtService jwtService;
+    private JwtService cachingJwtService;
+    private User user;
+    private String token;
+    private String bearerHeader;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 600000L);
+        ReflectionTestUtils.setField(jwtService, "jwtRefreshExpiration", 604800000L);
+        jwtService.reloadSecret(SECRET);
+
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .username("bench@example.com")
+                .name("Bench User")
+                .roles(List.of(Role.builder().name("USER").build()))
+                .build();
+        token = jwtService.generateToken(user);
+        bearerHeader = "Bearer " + token;
+
+        cachingJwtService = new JwtService();
+        ReflectionTestUtils.setField(cachingJwtService, "jwtExpiration", 600000L);
+        cachingJwtService.reloadSecret(SECRET);
+        cachingJwtService.setVerifiedTokenCache(new VerifiedTokenCache(10_000, new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims parseWithCachedKeyMaterial() {
+        return jwtService.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public ParsedToken parseBearerInPlace() {
+        return jwtService.parseToken(bearerHeader, 7);
+    }
+
+    @Benchmark
+    public ParsedToken parseBearerWithClaimsMap() {
+        return ParsedToken.fromClaims(jwtService.extractAllClaims(bearerHeader.substring(7)));
+    }
+
+    @Benchmark
+    public Claims parseFromVerifiedTokenCache() {
+        return cachingJwtService.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public Claims parseRebuildingKeyPerCall() {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
@@ -0,0 +1,46 @@
+package com.ntt.prueba.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ntt.prueba.auth.validation.PasswordValidator;
+
+/**
+ * Password policy check with the production pattern. Only the accepting path
+ * is measured; a rejection also builds the constraint violation, which needs a
+ * validator context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordValidatorBenchmark {
+
+    private static final String PATTERN = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@#$%^&+=]).{8,}$";
+
+    private PasswordValidator validator;
+
+    @Setup
+    public void setUp() {
+        validator = new PasswordValidator();
+        ReflectionTestUtils.setField(validator, "passwordPattern", PATTERN);
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return validator.isValid("SecurePass123@", null);
+    }
+}
@@ -0,0 +1,48 @@
+package com.ntt.prueba.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.ntt.prueba.auth.dto.UserDTO;
+import com.ntt.prueba.auth.entity.User;
+import com.ntt.prueba.shared.GenericSpecificationBuilder;
+
+/**
+ * Turning a filter DTO into a specification, as filtered list endpoints do on
+ * every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpecificationBuilderBenchmark {
+
+    private GenericSpecificationBuilder<User> builder;
+    private UserDTO.FiltersUserDTO filters;
+
+    @Setup
+    public void setUp() {
+        builder = new GenericSpecificationBuilder<>();
+        filters = new UserDTO.FiltersUserDTO();
+        filters.setUsername("bench");
+        filters.setName("Bench User");
+    }
+
+    @Benchmark
+    public Specification<User> build() {
+        return builder.build(filters);
+    }
+}
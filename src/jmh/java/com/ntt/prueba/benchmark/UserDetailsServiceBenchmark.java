@@ -0,0 +1,67 @@
+package com.ntt.prueba.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import com.ntt.prueba.PruebaApplication;
+import com.ntt.prueba.auth.repository.UserRepository;
+import com.ntt.prueba.auth.service.impl.UserDetailsServiceImpl;
+
+/**
+ * User lookup against the H2 database of the {@code test} profile, for the
+ * admin user seeded by {@code DataInitializer}. Compares the plain JPA lookup
+ * with the cached service registered in {@code SecurityConfig}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserDetailsServiceBenchmark {
+
+    private static final String USERNAME = "admin@admin.com";
+
+    private ConfigurableApplicationContext context;
+    private UserDetailsService databaseLookup;
+    private UserDetailsService cachedLookup;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PruebaApplication.class)
+                .profiles("test")
+                .run("--server.port=0", "--logging.level.com.ntt.prueba=WARN");
+        databaseLookup = new UserDetailsServiceImpl(context.getBean(UserRepository.class));
+        cachedLookup = context.getBean(UserDetailsService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDetails loadFromDatabase() {
+        return databaseLookup.loadUserByUsername(USERNAME);
+    }
+
+    @Benchmark
+    public UserDetails loadFromCache() {
+        return cachedLookup.loadUserByUsername(USERNAME);
+    }
+}
@@ -0,0 +1,66 @@
+package com.ntt.prueba.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ntt.prueba.auth.dto.UserDTO;
+import com.ntt.prueba.auth.entity.Phone;
+import com.ntt.prueba.auth.entity.Role;
+import com.ntt.prueba.auth.entity.User;
+import com.ntt.prueba.auth.mapper.PhoneMapperImpl;
+import com.ntt.prueba.auth.mapper.UserMapper;
+import com.ntt.prueba.auth.mapper.UserMapperImpl;
+
+/**
+ * MapStruct entity-to-DTO mapping of a user with roles and phones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    private UserMapper userMapper;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        userMapper = new UserMapperImpl();
+        ReflectionTestUtils.setField(userMapper, "phoneMapper", new PhoneMapperImpl());
+
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .username("bench@example.com")
+                .name("Bench User")
+                .password("encoded")
+                .isDeleted(false)
+                .lastlogin(LocalDateTime.now())
+                .roles(List.of(Role.builder().name("USER").build(), Role.builder().name("ADMIN").build()))
+                .phones(List.of(
+                        Phone.builder().number("987654321").cityCode("1").countryCode("+57").build(),
+                        Phone.builder().number("912345678").cityCode("2").countryCode("+57").build()))
+                .build();
+        user.setCreatedDate(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public UserDTO toDTO() {
+        return userMapper.toDTO(user);
+    }
+}
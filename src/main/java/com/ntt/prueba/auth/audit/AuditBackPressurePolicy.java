@@ -0,0 +1,16 @@
+package com.ntt.prueba.auth.audit;
+
+/**
+ * What {@link AuthenticationAuditWriter} does when its queue is full.
+ */
+public enum AuditBackPressurePolicy {
+
+    /** Wait for space in the queue. */
+    BLOCK,
+
+    /** Discard the oldest queued event to make room. */
+    DROP_OLDEST,
+
+    /** Write the event to the local spill file instead of queueing it. */
+    SPILL
+}
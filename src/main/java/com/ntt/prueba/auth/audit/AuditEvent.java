@@ -0,0 +1,57 @@
+package com.ntt.prueba.auth.audit;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import com.ntt.prueba.auth.entity.AuthEventType;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Authentication audit record captured on the request thread and persisted
+ * later by {@link AuthenticationAuditWriter}. The access token is kept raw
+ * until it is written so hashing stays off the login path; events read back
+ * from the {@link AuditJournal} carry only the hash. The row id is fixed when
+ * the event is created, so every retry or replay targets the same row.
+ */
+@Value
+@Builder
+public class AuditEvent {
+
+    @Builder.Default
+    UUID id = UUID.randomUUID();
+    UUID userId;
+    AuthEventType eventType;
+    String accessToken;
+    String accessTokenHash;
+    UUID refreshTokenId;
+    String ipAddress;
+    String userAgent;
+    LocalDateTime eventTime;
+    boolean successful;
+
+    public String resolveAccessTokenHash() {
+        if (accessTokenHash != null) {
+            return accessTokenHash;
+        }
+        return accessToken != null ? hashToken(accessToken) : null;
+    }
+
+    /**
+     * Hash a token using SHA-256
+     */
+    public static String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Error hashing token", e);
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.ntt.prueba.auth.audit;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.ntt.prueba.auth.entity.AuthEventType;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only, memory-mapped journal for audit events that could not be
+ * written to the database. The file starts with a small header holding the
+ * replay position, followed by records of {@code [length][crc32][payload]}.
+ * A record becomes visible only once its length is written, after the
+ * payload and checksum, so a torn write is ignored when the journal is
+ * reopened after a crash. Payloads carry the event's row id, so a replayed
+ * event always maps to the same row.
+ */
+@Slf4j
+@Component
+public class AuditJournal {
+
+    private static final int MAGIC = 0x41554A31; // "AUJ1"
+    static final int HEADER_SIZE = 16;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int READ_OFFSET = 4;
+    private static final int RECORD_HEADER_SIZE = 8;
+    // First payload byte of records that carry the row id; older records start with the user id flag (0 or 1)
+    private static final int PAYLOAD_WITH_ID = 2;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    // Not synchronized: appends force pages to disk, which would pin a virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private int readOffset;
+    private int writeOffset;
+    private int pendingRecords;
+    // Offsets handed out by readBatch stay valid until committed, so compaction waits for it
+    private boolean batchInFlight;
+
+    public AuditJournal(@Value("${app.audit.journal.path:logs/audit-journal.bin}") String path,
+            @Value("${app.audit.journal.size:64MB}") DataSize size) {
+        this.path = Path.of(path);
+        this.capacity = Math.toIntExact(size.toBytes());
+        try {
+            Path parent = this.path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            this.channel = FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            lockExclusively();
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open audit journal " + path, e);
+        }
+        recover();
+    }
+
+    /**
+     * Two processes mapping the same file would overwrite each other's offsets,
+     * so the journal is owned by whoever locks it first. The lock is released
+     * when the channel closes.
+     */
+    private void lockExclusively() throws IOException {
+        FileLock fileLock;
+        try {
+            fileLock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            fileLock = null;
+        }
+        if (fileLock == null) {
+            channel.close();
+            throw new IllegalStateException("Audit journal " + path + " is in use by another process");
+        }
+    }
+
+    /**
+     * Append an event. Returns {@code false} when the journal is full.
+     */
+    public boolean append(AuditEvent event) {
+        byte[] payload = encode(event);
+        int recordSize = RECORD_HEADER_SIZE + payload.length;
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        lock.lock();
+        try {
+            if (!hasRoom(recordSize) && !(compact() && hasRoom(recordSize))) {
+                return false;
+            }
+            int position = writeOffset;
+            buffer.put(position + RECORD_HEADER_SIZE, payload);
+            buffer.putInt(position + 4, (int) crc.getValue());
+            int next = position + recordSize;
+            if (next + 4 <= capacity) {
+                buffer.putInt(next, 0);
+            }
+            // Publishing the length last is what makes the record valid
+            buffer.putInt(position, payload.length);
+            buffer.force(position, Math.min(recordSize + 4, capacity - position));
+
+            writeOffset = next;
+            pendingRecords++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Read up to {@code maxEvents} events that have not been replayed yet.
+     * The batch must be passed to {@link #commit(Batch)} once it is written.
+     */
+    public Batch readBatch(int maxEvents) {
+        lock.lock();
+        try {
+            List<AuditEvent> events = new ArrayList<>();
+            List<Integer> endOffsets = new ArrayList<>();
+            int position = readOffset;
+            while (events.size() < maxEvents && position < writeOffset) {
+                int length = buffer.getInt(position);
+                byte[] payload = new byte[length];
+                buffer.get(position + RECORD_HEADER_SIZE, payload);
+                events.add(decode(payload));
+                position += RECORD_HEADER_SIZE + length;
+                endOffsets.add(position);
+            }
+            batchInFlight = !events.isEmpty();
+            return new Batch(events, endOffsets);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Mark a batch as replayed. When nothing is left the journal rewinds to
+     * its start.
+     */
+    public void commit(Batch batch) {
+        commit(batch, batch.events().size());
+    }
+
+    /**
+     * Mark the first {@code count} events of a batch as replayed; the rest are
+     * read again by the next {@link #readBatch(int)}.
+     */
+    public void commit(Batch batch, int count) {
+        if (count == 0) {
+            abort(batch);
+            return;
+        }
+        lock.lock();
+        try {
+            batchInFlight = false;
+            pendingRecords -= count;
+            int endOffset = batch.endOffsets().get(count - 1);
+            if (endOffset >= writeOffset) {
+                readOffset = HEADER_SIZE;
+                writeOffset = HEADER_SIZE;
+                pendingRecords = 0;
+                buffer.putInt(HEADER_SIZE, 0);
+            } else {
+                readOffset = endOffset;
+            }
+            writeHeader();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Release a batch that could not be written so it is read again later.
+     */
+    public void abort(Batch batch) {
+        lock.lock();
+        try {
+            batchInFlight = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getPendingRecords() {
+        lock.lock();
+        try {
+            return pendingRecords;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getUsedBytes() {
+        lock.lock();
+        try {
+            return writeOffset - HEADER_SIZE;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close audit journal {}: {}", path, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean hasRoom(int recordSize) {
+        return writeOffset + recordSize <= capacity;
+    }
+
+    /**
+     * Move unreplayed records to the start of the file. Only done when the
+     * live region does not overlap its destination, so a crash midway leaves
+     * the header pointing at an intact copy.
+     */
+    private boolean compact() {
+        int live = writeOffset - readOffset;
+        if (batchInFlight || readOffset == HEADER_SIZE || HEADER_SIZE + live > readOffset) {
+            return false;
+        }
+        byte[] records = new byte[live];
+        buffer.get(readOffset, records);
+        buffer.put(HEADER_SIZE, records);
+        if (HEADER_SIZE + live + 4 <= capacity) {
+            buffer.putInt(HEADER_SIZE + live, 0);
+        }
+        buffer.force();
+        readOffset = HEADER_SIZE;
+        writeOffset = HEADER_SIZE + live;
+        writeHeader();
+        return true;
+    }
+
+    /**
+     * Rebuild the in-memory offsets from the file, stopping at the first
+     * record that is empty, truncated or fails its checksum.
+     */
+    private void recover() {
+        if (buffer.getInt(MAGIC_OFFSET) != MAGIC) {
+            buffer.putInt(MAGIC_OFFSET, MAGIC);
+            buffer.putInt(HEADER_SIZE, 0);
+            readOffset = HEADER_SIZE;
+            writeOffset = HEADER_SIZE;
+            writeHeader();
+            return;
+        }
+        readOffset = buffer.getInt(READ_OFFSET);
+        if (readOffset < HEADER_SIZE || readOffset > capacity) {
+            readOffset = HEADER_SIZE;
+        }
+        int position = readOffset;
+        int records = 0;
+        while (position + RECORD_HEADER_SIZE <= capacity) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + RECORD_HEADER_SIZE + length > capacity) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(position + RECORD_HEADER_SIZE, payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                log.warn("Discarding torn audit journal record at offset {}", position);
+                break;
+            }
+            position += RECORD_HEADER_SIZE + length;
+            records++;
+        }
+        writeOffset = position;
+        pendingRecords = records;
+        if (records > 0) {
+            log.info("Audit journal {} holds {} events pending replay", path, records);
+        }
+    }
+
+    private void writeHeader() {
+        buffer.putInt(READ_OFFSET, readOffset);
+        // Include the first record slot so a rewind is durable together with the header
+        buffer.force(0, HEADER_SIZE + 4);
+    }
+
+    static byte[] encode(AuditEvent event) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(PAYLOAD_WITH_ID);
+            out.writeLong(event.getId().getMostSignificantBits());
+            out.writeLong(event.getId().getLeastSignificantBits());
+            writeUuid(out, event.getUserId());
+            out.writeUTF(event.getEventType().name());
+            writeString(out, event.resolveAccessTokenHash());
+            writeUuid(out, event.getRefreshTokenId());
+            writeString(out, event.getIpAddress());
+            writeString(out, event.getUserAgent());
+            out.writeLong(event.getEventTime().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(event.getEventTime().getNano());
+            out.writeBoolean(event.isSuccessful());
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static AuditEvent decode(byte[] payload) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            int first = in.readUnsignedByte();
+            UUID id;
+            UUID userId;
+            if (first == PAYLOAD_WITH_ID) {
+                id = new UUID(in.readLong(), in.readLong());
+                userId = readUuid(in);
+            } else {
+                // Written before ids were journaled: derive one from the record so every replay agrees on it
+                id = UUID.nameUUIDFromBytes(payload);
+                userId = first != 0 ? new UUID(in.readLong(), in.readLong()) : null;
+            }
+            return AuditEvent.builder()
+                    .id(id)
+                    .userId(userId)
+                    .eventType(AuthEventType.valueOf(in.readUTF()))
+                    .accessTokenHash(readString(in))
+                    .refreshTokenId(readUuid(in))
+                    .ipAddress(readString(in))
+                    .userAgent(readString(in))
+                    .eventTime(LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC))
+                    .successful(in.readBoolean())
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getMostSignificantBits());
+            out.writeLong(value.getLeastSignificantBits());
+        }
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Events read from the journal and, for each, the offset just past it.
+     */
+    public record Batch(List<AuditEvent> events, List<Integer> endOffsets) {
+    }
+}
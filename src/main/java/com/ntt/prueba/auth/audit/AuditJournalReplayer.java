@@ -0,0 +1,148 @@
+package com.ntt.prueba.auth.audit;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the {@link AuditJournal} into {@code authentication_audit}. Runs once
+ * at startup and then periodically. Events keep their row id in the journal
+ * and batches are written in one transaction, so a batch or row that is
+ * replayed again never adds a second row. A failed batch is retried row by
+ * row; the row that fails stays in the journal and stops the run until the next
+ * attempt. After {@code app.audit.journal.max-attempts} failures it is logged
+ * and discarded, counted by {@code auth.audit.journal.quarantined}, so one
+ * event that can never be written (e.g. for a deleted user) cannot block
+ * replay for good.
+ */
+@Slf4j
+@Component
+public class AuditJournalReplayer {
+
+    private final AuditJournal journal;
+    private final AuthenticationAuditWriter auditWriter;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Counter replayedCounter;
+    private final Counter quarantinedCounter;
+    private final ReentrantLock replayLock = new ReentrantLock();
+
+    // Encoded form of the event that last failed to replay, guarded by replayLock
+    private byte[] failingEvent;
+    private int failingAttempts;
+
+    public AuditJournalReplayer(AuditJournal journal, AuthenticationAuditWriter auditWriter,
+            MeterRegistry meterRegistry, @Value("${app.audit.batch-size:100}") int batchSize,
+            @Value("${app.audit.journal.max-attempts:3}") int maxAttempts) {
+        this.journal = journal;
+        this.auditWriter = auditWriter;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.replayedCounter = meterRegistry.counter("auth.audit.journal.replayed");
+        this.quarantinedCounter = meterRegistry.counter("auth.audit.journal.quarantined");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayOnStartup() {
+        replay();
+    }
+
+    @Scheduled(fixedDelayString = "${app.audit.journal.replay-interval:5000}")
+    public int replay() {
+        // Startup and scheduled runs may overlap; the second one has nothing to do
+        if (!replayLock.tryLock()) {
+            return 0;
+        }
+        try {
+            int replayed = 0;
+            while (journal.getPendingRecords() > 0) {
+                AuditJournal.Batch batch = journal.readBatch(batchSize);
+                if (batch.events().isEmpty()) {
+                    break;
+                }
+                Outcome outcome = write(batch);
+                journal.commit(batch, outcome.processed());
+                replayed += outcome.written();
+                if (outcome.processed() < batch.events().size()) {
+                    log.warn("Audit journal replay paused, {} events pending", journal.getPendingRecords());
+                    break;
+                }
+            }
+            if (replayed > 0) {
+                log.info("Replayed {} audit events from the journal", replayed);
+            }
+            return replayed;
+        } finally {
+            replayLock.unlock();
+        }
+    }
+
+    /**
+     * Write as much of the batch as possible, in order.
+     *
+     * @return how many leading events were processed, and how many of those
+     *         were written rather than discarded
+     */
+    private Outcome write(AuditJournal.Batch batch) {
+        List<AuditEvent> events = batch.events();
+        try {
+            auditWriter.insert(events);
+            replayedCounter.increment(events.size());
+            return new Outcome(events.size(), events.size());
+        } catch (DataAccessResourceFailureException e) {
+            log.warn("Audit journal replay cannot reach the database: {}", e.getMessage());
+            return new Outcome(0, 0);
+        } catch (Exception e) {
+            // One bad row fails the whole JDBC batch; find it by writing the rows one by one
+        }
+        int written = 0;
+        for (int i = 0; i < events.size(); i++) {
+            AuditEvent event = events.get(i);
+            try {
+                auditWriter.insertOne(event);
+                replayedCounter.increment();
+                written++;
+            } catch (DataAccessResourceFailureException e) {
+                log.warn("Audit journal replay cannot reach the database: {}", e.getMessage());
+                return new Outcome(i, written);
+            } catch (Exception e) {
+                if (failedAttempts(event) < maxAttempts) {
+                    log.warn("Failed to replay audit event, will retry: {}", e.getMessage());
+                    return new Outcome(i, written);
+                }
+                quarantinedCounter.increment();
+                log.error("Discarding {} audit event for user {} at {} after {} failed replays: {}",
+                        event.getEventType(), event.getUserId(), event.getEventTime(), maxAttempts, e.getMessage());
+            }
+        }
+        return new Outcome(events.size(), written);
+    }
+
+    /**
+     * Count a failure of the event at the head of the journal. A failing event
+     * stops the run, so it stays at the head until it is written or discarded.
+     */
+    private int failedAttempts(AuditEvent event) {
+        byte[] encoded = AuditJournal.encode(event);
+        if (Arrays.equals(encoded, failingEvent)) {
+            return ++failingAttempts;
+        }
+        failingEvent = encoded;
+        failingAttempts = 1;
+        return failingAttempts;
+    }
+
+    private record Outcome(int processed, int written) {
+    }
+}
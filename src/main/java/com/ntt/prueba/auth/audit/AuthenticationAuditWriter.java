@@ -0,0 +1,319 @@
+package com.ntt.prueba.auth.audit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persists authentication audit events off the request thread. Events go into
+ * a bounded queue and background writers insert them with JDBC batches, either
+ * when a batch is full or when the flush interval elapses. Each batch is
+ * written in its own transaction, so it lands entirely or not at all. When a
+ * batch fails the rows are retried one by one; rows that still fail, and
+ * events rejected by the SPILL policy, go to the {@link AuditJournal} for
+ * later replay. On shutdown the writers drain the queue before the datasource
+ * is closed.
+ */
+@Slf4j
+@Component
+public class AuthenticationAuditWriter implements SmartLifecycle {
+
+    static final String INSERT_SQL = "INSERT INTO authentication_audit "
+            + "(id, user_id, event_type, access_token_hash, refresh_token_id, ip_address, user_agent, "
+            + "event_time, successful, is_deleted, created_by, created_date) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Stop after the web server so no request can enqueue once the writers are gone
+    private static final int PHASE = Integer.MAX_VALUE - 4096;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<AuditEvent> queue;
+    private final AuditBackPressurePolicy policy;
+    private final int writers;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final AuditJournal journal;
+
+    private final Timer flushTimer;
+    private final Counter droppedCounter;
+    private final Counter spilledCounter;
+    private final Counter failedCounter;
+
+    private final List<Thread> writerThreads = new ArrayList<>();
+    private final ReadWriteLock stateLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+
+    // Writers spend nearly all their time blocked on the queue or on JDBC
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    public AuthenticationAuditWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            AuditJournal journal, MeterRegistry meterRegistry,
+            @Value("${app.audit.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.audit.writers:1}") int writers,
+            @Value("${app.audit.batch-size:100}") int batchSize,
+            @Value("${app.audit.flush-interval:200}") long flushIntervalMillis,
+            @Value("${app.audit.back-pressure:SPILL}") AuditBackPressurePolicy policy) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Independent of any transaction of a caller that writes inline
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.journal = journal;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.policy = policy;
+        this.writers = writers;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+
+        Gauge.builder("auth.audit.queue.depth", queue, BlockingQueue::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+        Gauge.builder("auth.audit.journal.pending", journal, AuditJournal::getPendingRecords)
+                .description("Audit events in the journal waiting for replay")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("auth.audit.flush")
+                .description("Latency of audit batch inserts")
+                .register(meterRegistry);
+        this.droppedCounter = meterRegistry.counter("auth.audit.dropped");
+        this.spilledCounter = meterRegistry.counter("auth.audit.spilled");
+        this.failedCounter = meterRegistry.counter("auth.audit.failed");
+    }
+
+    /**
+     * Queue an event for writing, applying the configured back-pressure policy
+     * when the queue is full. Once the writers have stopped, the event is
+     * written on the caller's thread.
+     */
+    public void submit(AuditEvent event) {
+        // Held while enqueuing so stop() cannot drain the queue between the running check and the offer
+        stateLock.readLock().lock();
+        try {
+            if (running) {
+                enqueue(event);
+                return;
+            }
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        flush(List.of(event));
+    }
+
+    private void enqueue(AuditEvent event) {
+        switch (policy) {
+            case BLOCK -> {
+                try {
+                    queue.put(event);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    flush(List.of(event));
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(event)) {
+                    if (queue.poll() != null) {
+                        droppedCounter.increment();
+                    }
+                }
+            }
+            case SPILL -> {
+                if (!queue.offer(event)) {
+                    spill(List.of(event));
+                }
+            }
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        stateLock.writeLock().lock();
+        try {
+            running = true;
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        Thread.Builder builder = virtualThreads
+                ? Thread.ofVirtual().name("audit-writer-", 0)
+                : Thread.ofPlatform().daemon().name("audit-writer-", 0);
+        for (int i = 0; i < writers; i++) {
+            writerThreads.add(builder.start(this::writeLoop));
+        }
+    }
+
+    @Override
+    public void stop() {
+        // Waits for submits in progress; later ones see running == false and write inline
+        stateLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        for (Thread thread : writerThreads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        writerThreads.clear();
+        // Anything enqueued while the writers were exiting
+        List<AuditEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void writeLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEvent first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    AuditEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void flush(List<AuditEvent> batch) {
+        try {
+            insert(batch);
+        } catch (Exception e) {
+            if (batch.size() == 1 || e instanceof DataAccessResourceFailureException) {
+                fail(batch, e);
+                return;
+            }
+            // One bad row fails the whole JDBC batch; write the rows one by one and journal only those that fail
+            List<AuditEvent> failed = new ArrayList<>();
+            Exception lastError = e;
+            for (AuditEvent event : batch) {
+                try {
+                    insertOne(event);
+                } catch (Exception rowError) {
+                    failed.add(event);
+                    lastError = rowError;
+                }
+            }
+            if (!failed.isEmpty()) {
+                fail(failed, lastError);
+            }
+        }
+    }
+
+    private void fail(List<AuditEvent> events, Exception e) {
+        // Audit failures never fail the authentication flow
+        failedCounter.increment(events.size());
+        log.error("Failed to write {} audit events, journaling them: {}", events.size(), e.getMessage());
+        spill(events);
+    }
+
+    /**
+     * Insert a batch in one transaction, propagating any database error to
+     * the caller. Nothing of a failed batch is left written.
+     */
+    void insert(List<AuditEvent> batch) {
+        flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> insertRows(batch)));
+    }
+
+    /**
+     * Insert one event. An event whose row already exists, written by an
+     * earlier attempt, counts as written.
+     */
+    void insertOne(AuditEvent event) {
+        try {
+            insert(List.of(event));
+        } catch (DuplicateKeyException e) {
+            log.debug("Audit event {} was already written", event.getId());
+        }
+    }
+
+    private void insertRows(List<AuditEvent> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+            LocalDateTime now = LocalDateTime.now();
+            ps.setObject(1, event.getId());
+            ps.setObject(2, event.getUserId());
+            ps.setString(3, event.getEventType().name());
+            ps.setString(4, event.resolveAccessTokenHash());
+            ps.setObject(5, event.getRefreshTokenId());
+            ps.setString(6, event.getIpAddress());
+            ps.setString(7, event.getUserAgent());
+            ps.setObject(8, event.getEventTime());
+            ps.setBoolean(9, event.isSuccessful());
+            ps.setBoolean(10, false);
+            ps.setString(11, "system");
+            ps.setObject(12, now);
+        });
+    }
+
+    private void spill(List<AuditEvent> events) {
+        for (AuditEvent event : events) {
+            if (journal.append(event)) {
+                spilledCounter.increment();
+            } else {
+                droppedCounter.increment();
+                log.error("Audit journal is full, dropping {} event for user {}", event.getEventType(),
+                        event.getUserId());
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.ntt.prueba.auth.controller;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ntt.prueba.security.JwtService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtService jwtService;
+
+    @GetMapping("/.well-known/jwks.json")
+    @Operation(summary = "Token verification keys", description = "Public keys, by kid, that access tokens are signed with.")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        // Short enough that verifiers pick up a rotated key well before the old one is retired
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(jwtService.getJwks());
+    }
+}
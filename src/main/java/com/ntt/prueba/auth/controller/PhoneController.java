@@ -5,12 +5,12 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.ntt.prueba.auth.service.PhoneService;
 import com.ntt.prueba.auth.dto.PhoneDTO;
-import com.ntt.prueba.shared.BaseController;
+import com.ntt.prueba.shared.SearchableController;
 
 @RestController
 @RequestMapping("/phone")
 public class PhoneController
-        extends BaseController<PhoneDTO.CreatePhoneDTO, PhoneDTO.UpdatePhoneDTO, PhoneDTO, PhoneDTO.FiltersPhoneDTO> {
+        extends SearchableController<PhoneDTO.CreatePhoneDTO, PhoneDTO.UpdatePhoneDTO, PhoneDTO, PhoneDTO.FiltersPhoneDTO> {
 
     public PhoneController(PhoneService service) {
         super(service);
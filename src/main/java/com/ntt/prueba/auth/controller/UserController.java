@@ -1,15 +1,21 @@
 package com.ntt.prueba.auth.controller;
 
 import java.util.List;
+import java.util.UUID;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.ntt.prueba.auth.dto.SessionDTO;
 import com.ntt.prueba.auth.dto.UserDTO;
+import com.ntt.prueba.auth.service.SessionService;
 import com.ntt.prueba.auth.service.UserCrudService;
-import com.ntt.prueba.shared.BaseController;
+import com.ntt.prueba.shared.SearchableController;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -19,10 +25,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = "Users", description = "User management endpoints")
 @PreAuthorize(value = "hasRole('ADMIN')")
 public class UserController
-        extends BaseController<UserDTO.CreateUserDTO, UserDTO.UpdateUserDTO, UserDTO, UserDTO.FiltersUserDTO> {
+        extends SearchableController<UserDTO.CreateUserDTO, UserDTO.UpdateUserDTO, UserDTO, UserDTO.FiltersUserDTO> {
 
-    public UserController(UserCrudService service) {
+    private final SessionService sessionService;
+
+    public UserController(UserCrudService service, SessionService sessionService) {
         super(service);
+        this.sessionService = sessionService;
     }
 
     @Override
@@ -46,15 +55,21 @@ public class UserController
     @Override
     @Operation(summary = "Get all users (paginated)", description = "Retrieves all users with pagination. Requires authentication.")
     public ResponseEntity<com.ntt.prueba.shared.PagedResponse<UserDTO>> getAllPaged(int page,
-            int size) {
-        return super.getAllPaged(page, size);
+            int size, boolean count) {
+        return super.getAllPaged(page, size, count);
+    }
+
+    @Override
+    @Operation(summary = "Search users", description = "Ranked search by username or name fragment. Requires authentication.")
+    public ResponseEntity<com.ntt.prueba.shared.PagedResponse<UserDTO>> search(String q, int page, int size) {
+        return super.search(q, page, size);
     }
 
     @Override
     @Operation(summary = "Get filtered users (paginated)", description = "Retrieves filtered users with pagination. Requires authentication.")
     public ResponseEntity<com.ntt.prueba.shared.PagedResponse<UserDTO>> getAllFilteredPagedByDto(
-            int page, int size, UserDTO.FiltersUserDTO filters) {
-        return super.getAllFilteredPagedByDto(page, size, filters);
+            int page, int size, boolean count, UserDTO.FiltersUserDTO filters) {
+        return super.getAllFilteredPagedByDto(page, size, count, filters);
     }
 
     @Override
@@ -68,4 +83,24 @@ public class UserController
     public ResponseEntity<Void> delete(String id) {
         return super.delete(id);
     }
+
+    @GetMapping("/{id}/sessions")
+    @Operation(summary = "List user sessions", description = "Lists the user's live refresh sessions, least recently used first. Requires ADMIN role.")
+    public ResponseEntity<List<SessionDTO>> getSessions(@PathVariable UUID id) {
+        return ResponseEntity.ok(sessionService.getSessions(id));
+    }
+
+    @DeleteMapping("/{id}/sessions/{sessionId}")
+    @Operation(summary = "Revoke a user session", description = "Revokes one refresh session of the user. Requires ADMIN role.")
+    public ResponseEntity<Void> revokeSession(@PathVariable UUID id, @PathVariable UUID sessionId) {
+        sessionService.revokeSession(id, sessionId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/{id}/sessions")
+    @Operation(summary = "Revoke all user sessions", description = "Revokes every refresh session of the user. Requires ADMIN role.")
+    public ResponseEntity<Void> revokeAllSessions(@PathVariable UUID id) {
+        sessionService.revokeAllSessions(id);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,25 @@
+package com.ntt.prueba.auth.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A live refresh session: one token family started by a login
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SessionDTO {
+
+    private UUID sessionId;
+
+    private LocalDateTime lastUsed;
+
+    private LocalDateTime expiresAt;
+}
@@ -5,6 +5,8 @@ import java.util.List;
 import java.util.UUID;
 
 import com.ntt.prueba.auth.validation.ValidPassword;
+import com.ntt.prueba.shared.FilterOperation;
+import com.ntt.prueba.shared.FilterOperator;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
@@ -85,8 +87,16 @@ public class UserDTO {
     @NoArgsConstructor
     public static class FiltersUserDTO {
 
+        @FilterOperator(FilterOperation.PREFIX_IGNORE_CASE)
         private String username;
 
+        @FilterOperator(FilterOperation.FULL_TEXT)
         private String name;
+
+        @FilterOperator(value = FilterOperation.GREATER_OR_EQUAL, field = "createdDate")
+        private LocalDateTime createdFrom;
+
+        @FilterOperator(value = FilterOperation.LESS_OR_EQUAL, field = "createdDate")
+        private LocalDateTime createdTo;
     }
 }
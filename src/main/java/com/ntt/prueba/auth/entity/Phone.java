@@ -1,10 +1,19 @@
 package com.ntt.prueba.auth.entity;
 
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 import com.ntt.prueba.shared.Auditable;
+import com.ntt.prueba.shared.SearchIndexListener;
+import com.ntt.prueba.shared.Searchable;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -13,11 +22,15 @@ import lombok.experimental.SuperBuilder;
 
 @Data
 @Entity
+@EntityListeners(SearchIndexListener.class)
+@Table(name = "phone", indexes = {
+        @Index(name = "idx_phone_created_date_id", columnList = "created_date, id")
+})
 @SuperBuilder
 @AllArgsConstructor
 @NoArgsConstructor
 @EqualsAndHashCode(callSuper = true)
-public class Phone extends Auditable {
+public class Phone extends Auditable implements Searchable {
 
     @ManyToOne
     @JoinColumn(name = "user_id")
@@ -32,4 +45,8 @@ public class Phone extends Auditable {
     // @Column(length = 4)
     private String countryCode;
 
+    @Override
+    public String searchText() {
+        return Stream.of(countryCode, cityCode, number).filter(Objects::nonNull).collect(Collectors.joining(" "));
+    }
 }
\ No newline at end of file
@@ -1,14 +1,19 @@
 package com.ntt.prueba.auth.entity;
 
 import java.time.Instant;
+import java.util.UUID;
 
+import com.ntt.prueba.security.OpaqueTokens;
 import com.ntt.prueba.shared.Auditable;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -16,7 +21,12 @@ import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 @Entity
-@Table(name = "refresh_tokens")
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "ux_refresh_tokens_token_hash", columnList = "token_hash", unique = true),
+        @Index(name = "idx_refresh_tokens_expiry_date_id", columnList = "expiry_date, id"),
+        @Index(name = "idx_refresh_tokens_family_id", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_user_id_created_date", columnList = "user_id, created_date")
+})
 @Data
 @SuperBuilder
 @NoArgsConstructor
@@ -24,9 +34,23 @@ import lombok.experimental.SuperBuilder;
 @EqualsAndHashCode(callSuper = true)
 public class RefreshToken extends Auditable {
 
+    /** SHA-256 digest of the token handed to the client */
+    @Column(name = "token_hash", nullable = false, unique = true, length = OpaqueTokens.DIGEST_BYTES)
+    private byte[] tokenHash;
+
+    /** Raw token, only known right after it is issued; never persisted */
+    @Transient
     private String token;
+
     private Instant expiryDate;
 
+    /** Shared by every token rotated from the same login */
+    @Column(nullable = false)
+    private UUID familyId;
+
+    /** Set when the token is rotated; presenting it again revokes the family */
+    private Instant consumedAt;
+
     @ManyToOne(cascade = CascadeType.MERGE)
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     private User user;
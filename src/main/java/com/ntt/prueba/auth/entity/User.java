@@ -4,11 +4,15 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import com.ntt.prueba.shared.Auditable;
+import com.ntt.prueba.shared.SearchIndexListener;
+import com.ntt.prueba.shared.Searchable;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
@@ -21,13 +25,16 @@ import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 @Entity
-@Table(name = "users")
+@EntityListeners(SearchIndexListener.class)
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_created_date_id", columnList = "created_date, id")
+})
 @Data
 @SuperBuilder
 @AllArgsConstructor
 @NoArgsConstructor
 @EqualsAndHashCode(callSuper = true)
-public class User extends Auditable {
+public class User extends Auditable implements Searchable {
     @Column(unique = true, nullable = false)
     private String username;
     private String name;
@@ -44,4 +51,9 @@ public class User extends Auditable {
 
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Phone> phones;
-}
\ No newline at end of file
+
+    @Override
+    public String searchText() {
+        return name != null ? username + " " + name : username;
+    }
+}
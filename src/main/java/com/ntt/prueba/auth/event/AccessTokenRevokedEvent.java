@@ -0,0 +1,15 @@
+package com.ntt.prueba.auth.event;
+
+import java.time.Instant;
+
+import lombok.Value;
+
+/**
+ * Published when a single access token is revoked, e.g. on logout. The token
+ * stays denied until {@code expiresAt}.
+ */
+@Value
+public class AccessTokenRevokedEvent {
+    String tokenId;
+    Instant expiresAt;
+}
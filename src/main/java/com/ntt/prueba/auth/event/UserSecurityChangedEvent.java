@@ -0,0 +1,12 @@
+package com.ntt.prueba.auth.event;
+
+import lombok.Value;
+
+/**
+ * Published when a change to a user invalidates what previously issued tokens
+ * say about them: password, roles, username or deleted flag.
+ */
+@Value
+public class UserSecurityChangedEvent {
+    String username;
+}
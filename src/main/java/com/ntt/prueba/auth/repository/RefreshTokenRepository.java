@@ -1,19 +1,75 @@
 package com.ntt.prueba.auth.repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.ntt.prueba.auth.entity.RefreshToken;
 import com.ntt.prueba.auth.entity.User;
 import com.ntt.prueba.shared.BaseJpaRepository;
 
+import jakarta.transaction.Transactional;
+
 @Repository
-public interface RefreshTokenRepository extends BaseJpaRepository<RefreshToken> {
-    Optional<RefreshToken> findByToken(String token);
+public interface RefreshTokenRepository extends BaseJpaRepository<RefreshToken>, RefreshTokenRotation {
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
 
     Optional<RefreshToken> findByUserId(UUID userId);
 
     void deleteByUser(User user);
-}
\ No newline at end of file
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.familyId = :familyId")
+    int deleteByFamilyId(UUID familyId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.familyId IN :familyIds")
+    int deleteByFamilyIdIn(Collection<UUID> familyIds);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.user.id = :userId AND r.familyId = :familyId")
+    int deleteByUserIdAndFamilyId(UUID userId, UUID familyId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.user.id = :userId")
+    int deleteAllByUserId(UUID userId);
+
+    @Query("SELECT COUNT(r) FROM RefreshToken r "
+            + "WHERE r.user.id = :userId AND r.consumedAt IS NULL AND r.expiryDate > :now")
+    long countLiveSessions(UUID userId, Instant now);
+
+    /**
+     * Live token of each of the user's sessions, least recently used first
+     */
+    @Query("SELECT r FROM RefreshToken r "
+            + "WHERE r.user.id = :userId AND r.consumedAt IS NULL AND r.expiryDate > :now "
+            + "ORDER BY r.createdDate, r.id")
+    List<RefreshToken> findLiveSessions(UUID userId, Instant now, Limit limit);
+
+    /**
+     * Next page of tokens expired before {@code cutoff}, ordered by
+     * {@code (expiryDate, id)} and starting after the given keyset cursor
+     */
+    @Query("SELECT r.id AS id, r.expiryDate AS expiryDate FROM RefreshToken r "
+            + "WHERE r.expiryDate < :cutoff "
+            + "AND (r.expiryDate > :afterExpiry OR (r.expiryDate = :afterExpiry AND r.id > :afterId)) "
+            + "ORDER BY r.expiryDate, r.id")
+    List<ExpiredRefreshToken> findExpiredAfter(Instant cutoff, Instant afterExpiry, UUID afterId, Limit limit);
+
+    interface ExpiredRefreshToken {
+        UUID getId();
+
+        Instant getExpiryDate();
+    }
+}
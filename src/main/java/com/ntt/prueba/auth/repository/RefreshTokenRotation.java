@@ -0,0 +1,21 @@
+package com.ntt.prueba.auth.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Custom {@link RefreshTokenRepository} fragment for the refresh path
+ */
+public interface RefreshTokenRotation {
+
+    /**
+     * Mark a live token as consumed in a single conditional UPDATE ... RETURNING.
+     * Empty when the token is unknown, expired or already consumed, so at most
+     * one concurrent caller can rotate a given token.
+     */
+    Optional<ConsumedRefreshToken> consume(byte[] tokenHash, Instant now);
+
+    record ConsumedRefreshToken(UUID id, UUID userId, UUID familyId) {
+    }
+}
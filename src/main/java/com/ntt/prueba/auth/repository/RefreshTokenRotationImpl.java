@@ -0,0 +1,48 @@
+package com.ntt.prueba.auth.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.hibernate.Session;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+class RefreshTokenRotationImpl implements RefreshTokenRotation {
+
+    static final String CONSUME_SQL = "UPDATE refresh_tokens SET consumed_at = ? "
+            + "WHERE token_hash = ? AND consumed_at IS NULL AND expiry_date > ?";
+    // Drivers append RETURNING (PostgreSQL) or report the updated rows (H2) for these columns
+    private static final String[] RETURNING_COLUMNS = { "id", "user_id", "family_id" };
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<ConsumedRefreshToken> consume(byte[] tokenHash, Instant now) {
+        // Plain JDBC bypasses Hibernate's auto-flush, so push pending inserts first
+        entityManager.flush();
+        Timestamp timestamp = Timestamp.from(now);
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(CONSUME_SQL, RETURNING_COLUMNS)) {
+                statement.setTimestamp(1, timestamp);
+                statement.setBytes(2, tokenHash);
+                statement.setTimestamp(3, timestamp);
+                if (statement.executeUpdate() == 0) {
+                    return Optional.empty();
+                }
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    if (!keys.next()) {
+                        throw new IllegalStateException("Driver returned no row for the consumed refresh token");
+                    }
+                    return Optional.of(new ConsumedRefreshToken(keys.getObject(1, UUID.class),
+                            keys.getObject(2, UUID.class), keys.getObject(3, UUID.class)));
+                }
+            }
+        });
+    }
+}
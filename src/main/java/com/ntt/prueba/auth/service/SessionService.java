@@ -0,0 +1,22 @@
+package com.ntt.prueba.auth.service;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.ntt.prueba.auth.dto.SessionDTO;
+import com.ntt.prueba.auth.entity.User;
+
+public interface SessionService {
+
+    /**
+     * Make room for a new session, revoking the least recently used ones
+     * once the user is at the configured limit
+     */
+    void enforceSessionLimit(User user);
+
+    List<SessionDTO> getSessions(UUID userId);
+
+    void revokeSession(UUID userId, UUID sessionId);
+
+    int revokeAllSessions(UUID userId);
+}
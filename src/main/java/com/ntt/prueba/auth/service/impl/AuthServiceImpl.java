@@ -1,44 +1,51 @@
 package com.ntt.prueba.auth.service.impl;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import com.ntt.prueba.auth.audit.AuditEvent;
+import com.ntt.prueba.auth.audit.AuthenticationAuditWriter;
 import com.ntt.prueba.auth.dto.AuthResponse;
 import com.ntt.prueba.auth.dto.AuthenticationRequest;
 import com.ntt.prueba.auth.dto.RefreshTokenRequest;
 import com.ntt.prueba.auth.dto.RegisterRequest;
 import com.ntt.prueba.auth.entity.AuthEventType;
-import com.ntt.prueba.auth.entity.AuthenticationAudit;
 import com.ntt.prueba.auth.entity.Phone;
 import com.ntt.prueba.auth.entity.RefreshToken;
 import com.ntt.prueba.auth.entity.Role;
 import com.ntt.prueba.auth.entity.User;
-import com.ntt.prueba.auth.repository.AuthenticationAuditRepository;
+import com.ntt.prueba.auth.event.AccessTokenRevokedEvent;
 import com.ntt.prueba.auth.repository.RefreshTokenRepository;
+import com.ntt.prueba.auth.repository.RefreshTokenRotation.ConsumedRefreshToken;
 import com.ntt.prueba.auth.repository.RoleRepository;
 import com.ntt.prueba.auth.repository.UserRepository;
 import com.ntt.prueba.auth.service.AuthService;
+import com.ntt.prueba.auth.service.SessionService;
 import com.ntt.prueba.auth.service.UserService;
 import com.ntt.prueba.exception.exception.BaseException;
+import com.ntt.prueba.exception.exception.ServiceOverloadedException;
 import com.ntt.prueba.security.JwtService;
+import com.ntt.prueba.security.OpaqueTokens;
+import com.ntt.prueba.security.ParsedToken;
 
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -52,12 +59,14 @@ public class AuthServiceImpl implements AuthService {
         private final RefreshTokenRepository refreshTokenRepository;
         private final RoleRepository roleRepository;
         private final PasswordEncoder passwordEncoder;
-        private final AuthenticationAuditRepository auditRepository;
+        private final AuthenticationAuditWriter auditWriter;
+        private final SessionService sessionService;
+        private final ApplicationEventPublisher eventPublisher;
 
         @Override
         @Transactional
         public AuthResponse register(RegisterRequest request) {
-                List<Role> roles = roleRepository.findByName("USER").stream().toList();
+                List<Role> roles = roleRepository.findByName("USER").stream().collect(Collectors.toList());
                 // habilitar para mandar roles desde el request
                 // if (request.getRoleNames() == null || request.getRoleNames().isEmpty()) {
                 // roles.add(roleRepository.findByName("USER")
@@ -102,7 +111,7 @@ public class AuthServiceImpl implements AuthService {
                 User createdUser = userRepository.save(user);
 
                 String jwt = jwtService.generateToken(createdUser);
-                RefreshToken refreshToken = createRefreshToken(createdUser);
+                RefreshToken refreshToken = createRefreshToken(createdUser, UUID.randomUUID());
 
                 // Register audit event for successful registration/login
                 registerAuditEvent(createdUser, AuthEventType.LOGIN, jwt, refreshToken.getId(), true, null);
@@ -128,7 +137,8 @@ public class AuthServiceImpl implements AuthService {
                         User user = userService.getUserByUsername(request.getUsername())
                                         .orElseThrow(() -> new BaseException("User not found", HttpStatus.NOT_FOUND));
                         String jwt = jwtService.generateToken(user);
-                        RefreshToken refreshToken = createRefreshToken(user);
+                        sessionService.enforceSessionLimit(user);
+                        RefreshToken refreshToken = createRefreshToken(user, UUID.randomUUID());
                         user.setLastlogin(LocalDateTime.now());
                         userRepository.save(user);
 
@@ -144,6 +154,13 @@ public class AuthServiceImpl implements AuthService {
                                         .id(user.getId())
                                         .refreshToken(refreshToken.getToken())
                                         .build();
+                } catch (InternalAuthenticationServiceException e) {
+                        // Unknown users are still checked against a dummy hash, so an overloaded
+                        // hashing pool reaches us wrapped by the user lookup
+                        if (e.getCause() instanceof ServiceOverloadedException overloaded) {
+                                throw overloaded;
+                        }
+                        throw e;
                 } catch (BadCredentialsException e) {
                         // Register audit event for failed login
                         userService.getUserByUsername(request.getUsername())
@@ -154,26 +171,22 @@ public class AuthServiceImpl implements AuthService {
                 }
         }
 
+        /**
+         * Rotate a refresh token. The presented token is consumed atomically and a
+         * new one is issued in the same family; presenting a consumed token again
+         * means it was stolen or replayed, so the whole family is revoked.
+         */
         @Override
-        @Transactional
+        @Transactional(noRollbackFor = BaseException.class)
         public AuthResponse refreshToken(RefreshTokenRequest request) {
-                RefreshToken refreshToken = refreshTokenRepository.findByToken(request.getRefreshToken())
-                                .orElseThrow(() -> new BaseException("Refresh Token is not in DB!",
-                                                HttpStatus.NOT_FOUND));
+                byte[] tokenHash = OpaqueTokens.digest(request.getRefreshToken());
+                ConsumedRefreshToken consumed = refreshTokenRepository.consume(tokenHash, Instant.now())
+                                .orElseThrow(() -> rejectRefreshToken(tokenHash));
 
-                if (refreshToken.getExpiryDate().isBefore(Instant.now())) {
-                        // Register audit event for expired token
-                        registerAuditEvent(refreshToken.getUser(), AuthEventType.TOKEN_EXPIRED, null,
-                                        refreshToken.getId(), false, "Token expired");
-                        refreshTokenRepository.delete(refreshToken);
-                        throw new BaseException("Refresh token was expired. Please make a new signin request",
-                                        HttpStatus.UNAUTHORIZED);
-                }
-
-                refreshTokenRepository.delete(refreshToken);
-                User user = refreshToken.getUser();
+                User user = userRepository.findById(consumed.userId())
+                                .orElseThrow(() -> new BaseException("User not found", HttpStatus.NOT_FOUND));
                 String newAccessToken = jwtService.generateToken(user);
-                RefreshToken newRefreshToken = createRefreshToken(user);
+                RefreshToken newRefreshToken = createRefreshToken(user, consumed.familyId());
 
                 // Register audit event for token refresh
                 registerAuditEvent(user, AuthEventType.TOKEN_REFRESH, newAccessToken, newRefreshToken.getId(), true,
@@ -185,37 +198,89 @@ public class AuthServiceImpl implements AuthService {
                                 .build();
         }
 
-        private RefreshToken createRefreshToken(User user) {
+        /**
+         * Work out why a refresh token could not be consumed
+         */
+        private BaseException rejectRefreshToken(byte[] tokenHash) {
+                RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(tokenHash).orElse(null);
+                if (refreshToken == null) {
+                        return new BaseException("Refresh Token is not in DB!", HttpStatus.NOT_FOUND);
+                }
+
+                if (refreshToken.getExpiryDate().isBefore(Instant.now())) {
+                        // Register audit event for expired token
+                        registerAuditEvent(refreshToken.getUser(), AuthEventType.TOKEN_EXPIRED, null,
+                                        refreshToken.getId(), false, "Token expired");
+                        refreshTokenRepository.delete(refreshToken);
+                        return new BaseException("Refresh token was expired. Please make a new signin request",
+                                        HttpStatus.UNAUTHORIZED);
+                }
+
+                // Live but not consumable: it was already rotated, so this is a replay
+                registerAuditEvent(refreshToken.getUser(), AuthEventType.TOKEN_REVOKED, null,
+                                refreshToken.getId(), false, "Refresh token reuse detected");
+                refreshTokenRepository.deleteByFamilyId(refreshToken.getFamilyId());
+                return new BaseException("Refresh token was already used. Please make a new signin request",
+                                HttpStatus.UNAUTHORIZED);
+        }
+
+        private RefreshToken createRefreshToken(User user, UUID familyId) {
+                String token = OpaqueTokens.generate();
                 RefreshToken refreshToken = RefreshToken.builder()
                                 .user(user)
-                                .token(UUID.randomUUID().toString())
+                                .tokenHash(OpaqueTokens.digest(token))
+                                .familyId(familyId)
                                 .expiryDate(Instant.now().plusMillis(jwtService.getRefreshExpiration()))
                                 .build();
-                return refreshTokenRepository.save(refreshToken);
+                RefreshToken saved = refreshTokenRepository.save(refreshToken);
+                saved.setToken(token);
+                return saved;
         }
 
         @Override
         @Transactional
         public void logout(RefreshTokenRequest request) {
-                refreshTokenRepository.findByToken(request.getRefreshToken())
+                refreshTokenRepository.findByTokenHash(OpaqueTokens.digest(request.getRefreshToken()))
                                 .ifPresent(refreshToken -> {
                                         // Register audit event for logout BEFORE deleting the token
                                         registerAuditEvent(refreshToken.getUser(), AuthEventType.LOGOUT, null,
                                                         refreshToken.getId(), true, null);
-                                        refreshTokenRepository.delete(refreshToken);
+                                        // Drop the consumed ancestors too, they only serve replay detection
+                                        refreshTokenRepository.deleteByFamilyId(refreshToken.getFamilyId());
+                                        revokeAccessToken(refreshToken.getUser());
                                 });
         }
 
+        /**
+         * Deny the access token sent with the logout request for the rest of its
+         * lifetime, if it belongs to the user logging out
+         */
+        private void revokeAccessToken(User user) {
+                String jwt = getBearerToken();
+                if (jwt == null) {
+                        return;
+                }
+                try {
+                        ParsedToken accessToken = jwtService.parseToken(jwt);
+                        if (user.getUsername().equals(accessToken.getSubject())) {
+                                eventPublisher.publishEvent(new AccessTokenRevokedEvent(accessToken.getTokenId(),
+                                                accessToken.getExpiresAt()));
+                        }
+                } catch (JwtException e) {
+                        // Expired or invalid, so already unusable
+                }
+        }
+
         /**
          * Register an authentication audit event
          */
         private void registerAuditEvent(User user, AuthEventType eventType, String jwt, UUID refreshTokenId,
                         boolean successful, String failureReason) {
                 try {
-                        AuthenticationAudit audit = AuthenticationAudit.builder()
-                                        .user(user)
+                        AuditEvent event = AuditEvent.builder()
+                                        .userId(user.getId())
                                         .eventType(eventType)
-                                        .accessTokenHash(jwt != null ? hashToken(jwt) : null)
+                                        .accessToken(jwt)
                                         .refreshTokenId(refreshTokenId)
                                         .ipAddress(getClientIp())
                                         .userAgent(getUserAgent())
@@ -223,26 +288,24 @@ public class AuthServiceImpl implements AuthService {
                                         .successful(successful)
                                         .build();
 
-                        auditRepository.save(audit);
+                        // Successful events reference rows written by this transaction, so they are
+                        // queued only once it commits; failures are queued straight away
+                        if (successful && TransactionSynchronizationManager.isSynchronizationActive()) {
+                                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                                        @Override
+                                        public void afterCommit() {
+                                                auditWriter.submit(event);
+                                        }
+                                });
+                        } else {
+                                auditWriter.submit(event);
+                        }
                 } catch (Exception e) {
                         // Log the error but don't fail the authentication process
                         System.err.println("Failed to register audit event: " + e.getMessage());
                 }
         }
 
-        /**
-         * Hash a token using SHA-256
-         */
-        private String hashToken(String token) {
-                try {
-                        MessageDigest digest = MessageDigest.getInstance("SHA-256");
-                        byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
-                        return Base64.getEncoder().encodeToString(hash);
-                } catch (NoSuchAlgorithmException e) {
-                        throw new RuntimeException("Error hashing token", e);
-                }
-        }
-
         /**
          * Get client IP address from HTTP request
          */
@@ -264,6 +327,25 @@ public class AuthServiceImpl implements AuthService {
                 return "unknown";
         }
 
+        /**
+         * Get the bearer token from the Authorization header of the HTTP request
+         */
+        private String getBearerToken() {
+                try {
+                        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder
+                                        .getRequestAttributes();
+                        if (attributes != null) {
+                                String header = attributes.getRequest().getHeader("Authorization");
+                                if (header != null && header.startsWith("Bearer ")) {
+                                        return header.substring(7);
+                                }
+                        }
+                } catch (Exception e) {
+                        // Request context not available (e.g., in tests)
+                }
+                return null;
+        }
+
         /**
          * Get user agent from HTTP request
          */
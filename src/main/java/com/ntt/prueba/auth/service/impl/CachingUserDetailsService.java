@@ -0,0 +1,77 @@
+package com.ntt.prueba.auth.service.impl;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ntt.prueba.auth.event.UserSecurityChangedEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Size-bounded, TTL-limited cache in front of {@link UserDetailsServiceImpl}.
+ * Entries are evicted once a {@link UserSecurityChangedEvent} commits, and
+ * hit/miss/eviction counters are published as {@code cache.*} metrics under
+ * the name {@code userDetails}.
+ */
+public class CachingUserDetailsService implements UserDetailsService {
+
+    private final UserDetailsService delegate;
+    private final AsyncCache<String, UserDetails> cache;
+
+    public CachingUserDetailsService(UserDetailsService delegate, long maxSize, Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        // The cache only stores a pending future; the lookup runs on the caller thread, outside
+        // the map's compute lock, so a JDBC call never pins a virtual thread. An eviction during
+        // the lookup drops the pending entry, so a stale result is never cached.
+        CompletableFuture<UserDetails> loading = new CompletableFuture<>();
+        CompletableFuture<UserDetails> future = cache.get(username, (key, executor) -> loading);
+        if (future == loading) {
+            try {
+                loading.complete(delegate.loadUserByUsername(username));
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e);
+            }
+        }
+        UserDetails cached;
+        try {
+            cached = future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        // Hand out a copy: the authentication manager erases credentials on the instance it receives
+        return User.withUserDetails(cached).build();
+    }
+
+    public void evict(String username) {
+        cache.synchronous().invalidate(username);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        evict(event.getUsername());
+    }
+}
@@ -0,0 +1,134 @@
+package com.ntt.prueba.auth.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ntt.prueba.auth.repository.RefreshTokenRepository;
+import com.ntt.prueba.auth.repository.RefreshTokenRepository.ExpiredRefreshToken;
+import com.ntt.prueba.config.SchedulerLockProvider;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Periodically hard-deletes expired refresh tokens. Rows are walked in
+ * {@code (expiry_date, id)} order with a keyset cursor, so every batch is an
+ * index range scan, and deleted by id in one statement per batch. Batches are
+ * paced to {@code batches-per-second} to keep the purge from competing with
+ * logins, and a {@link SchedulerLockProvider} lock keeps it to one node. The
+ * run stops before the lock lease runs out, so another node can never take
+ * the lock over while this one is still deleting.
+ */
+@Slf4j
+@Component
+public class RefreshTokenReaper {
+
+    static final String LOCK_NAME = "refresh-token-reaper";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final SchedulerLockProvider lockProvider;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long batchIntervalNanos;
+    private final Duration lockAtMostFor;
+
+    private final Counter purgedCounter;
+    private final Timer batchTimer;
+
+    public RefreshTokenReaper(RefreshTokenRepository refreshTokenRepository, SchedulerLockProvider lockProvider,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.refresh-token.reaper.enabled:true}") boolean enabled,
+            @Value("${app.security.refresh-token.reaper.batch-size:1000}") int batchSize,
+            @Value("${app.security.refresh-token.reaper.batches-per-second:10}") int batchesPerSecond,
+            @Value("${app.security.refresh-token.reaper.lock-at-most-for:10m}") Duration lockAtMostFor) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.lockProvider = lockProvider;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.batchIntervalNanos = batchesPerSecond > 0 ? 1_000_000_000L / batchesPerSecond : 0;
+        this.lockAtMostFor = lockAtMostFor;
+        this.purgedCounter = Counter.builder("auth.refresh_token.purged")
+                .description("Expired refresh tokens deleted by the reaper")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("auth.refresh_token.purge.batch")
+                .description("Time to select and delete one batch of expired refresh tokens")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.refresh-token.reaper.interval:300000}",
+            initialDelayString = "${app.security.refresh-token.reaper.interval:300000}")
+    public int purgeExpired() {
+        long deadline = System.nanoTime() + lockAtMostFor.toNanos();
+        if (!enabled || !lockProvider.tryLock(LOCK_NAME, lockAtMostFor)) {
+            return 0;
+        }
+        try {
+            return purge(Instant.now(), deadline);
+        } catch (RuntimeException e) {
+            log.warn("Refresh token purge failed: {}", e.getMessage());
+            return 0;
+        } finally {
+            lockProvider.unlock(LOCK_NAME);
+        }
+    }
+
+    /**
+     * Delete tokens that expired before {@code cutoff}, starting no batch that
+     * could still be running at {@code deadline} ({@link System#nanoTime()})
+     */
+    int purge(Instant cutoff, long deadline) {
+        Instant afterExpiry = Instant.EPOCH;
+        UUID afterId = new UUID(0, 0);
+        int purged = 0;
+        long slowestBatch = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            long start = System.nanoTime();
+            if (deadline - start <= slowestBatch) {
+                log.info("Refresh token purge stopped at the lock budget; the rest is left for the next run");
+                break;
+            }
+            List<ExpiredRefreshToken> batch = refreshTokenRepository.findExpiredAfter(cutoff, afterExpiry, afterId,
+                    Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            purged += refreshTokenRepository.hardDelete(batch.stream().map(ExpiredRefreshToken::getId).toList());
+            long elapsed = System.nanoTime() - start;
+            slowestBatch = Math.max(slowestBatch, elapsed);
+            batchTimer.record(Duration.ofNanos(elapsed));
+
+            ExpiredRefreshToken last = batch.get(batch.size() - 1);
+            afterExpiry = last.getExpiryDate();
+            afterId = last.getId();
+            if (batch.size() < batchSize) {
+                break;
+            }
+            pause(Math.min(batchIntervalNanos - elapsed, deadline - System.nanoTime()));
+        }
+        purgedCounter.increment(purged);
+        if (purged > 0) {
+            log.info("Purged {} expired refresh tokens", purged);
+        }
+        return purged;
+    }
+
+    private static void pause(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(nanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.ntt.prueba.auth.service.impl;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ntt.prueba.auth.dto.SessionDTO;
+import com.ntt.prueba.auth.entity.RefreshToken;
+import com.ntt.prueba.auth.entity.User;
+import com.ntt.prueba.auth.repository.RefreshTokenRepository;
+import com.ntt.prueba.auth.service.SessionService;
+import com.ntt.prueba.exception.exception.BaseException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Refresh sessions per user. A session is a token family and its live
+ * (unconsumed, unexpired) token; since every refresh issues a new token, the
+ * live token's creation date is the session's last use.
+ */
+@Slf4j
+@Service
+public class SessionServiceImpl implements SessionService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final int maxSessions;
+
+    public SessionServiceImpl(RefreshTokenRepository refreshTokenRepository,
+            @Value("${app.security.refresh-token.max-sessions:10}") int maxSessions) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.maxSessions = maxSessions;
+    }
+
+    @Override
+    @Transactional
+    public void enforceSessionLimit(User user) {
+        if (maxSessions <= 0) {
+            return;
+        }
+        Instant now = Instant.now();
+        long live = refreshTokenRepository.countLiveSessions(user.getId(), now);
+        if (live < maxSessions) {
+            return;
+        }
+        int excess = (int) (live - maxSessions + 1);
+        List<UUID> evicted = refreshTokenRepository.findLiveSessions(user.getId(), now, Limit.of(excess)).stream()
+                .map(RefreshToken::getFamilyId)
+                .toList();
+        refreshTokenRepository.deleteByFamilyIdIn(evicted);
+        log.debug("Evicted {} least recently used sessions of user {}", evicted.size(), user.getId());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SessionDTO> getSessions(UUID userId) {
+        return refreshTokenRepository.findLiveSessions(userId, Instant.now(), Limit.unlimited()).stream()
+                .map(token -> SessionDTO.builder()
+                        .sessionId(token.getFamilyId())
+                        .lastUsed(token.getCreatedDate())
+                        // Same local wall-clock time as the audited createdDate, like the other DTOs
+                        .expiresAt(LocalDateTime.ofInstant(token.getExpiryDate(), ZoneId.systemDefault()))
+                        .build())
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public void revokeSession(UUID userId, UUID sessionId) {
+        if (refreshTokenRepository.deleteByUserIdAndFamilyId(userId, sessionId) == 0) {
+            throw new BaseException("Session " + sessionId + " not found", HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int revokeAllSessions(UUID userId) {
+        return refreshTokenRepository.deleteAllByUserId(userId);
+    }
+}
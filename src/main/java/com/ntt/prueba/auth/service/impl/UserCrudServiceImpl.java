@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -12,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 import com.ntt.prueba.auth.dto.UserDTO;
 import com.ntt.prueba.auth.entity.Phone;
 import com.ntt.prueba.auth.entity.User;
+import com.ntt.prueba.auth.event.UserSecurityChangedEvent;
 import com.ntt.prueba.auth.mapper.UserMapper;
 import com.ntt.prueba.auth.repository.UserRepository;
 import com.ntt.prueba.auth.service.UserCrudService;
@@ -26,11 +28,14 @@ public class UserCrudServiceImpl
 
     private final PasswordEncoder passwordEncoder;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserCrudServiceImpl(UserRepository repository, UserMapper mapper, PasswordEncoder passwordEncoder) {
+    public UserCrudServiceImpl(UserRepository repository, UserMapper mapper, PasswordEncoder passwordEncoder,
+            ApplicationEventPublisher eventPublisher) {
         super(repository, mapper);
         this.passwordEncoder = passwordEncoder;
         this.userRepository = repository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -72,6 +77,11 @@ public class UserCrudServiceImpl
             throw new BaseException("Username already exists", HttpStatus.CONFLICT);
         }
 
+        String previousUsername = existingUser.getUsername();
+        boolean securityChanged = (request.getUsername() != null && !request.getUsername().equals(previousUsername))
+                || (request.getPassword() != null && !request.getPassword().isEmpty())
+                || request.getRoleNames() != null;
+
         // Update basic fields
         if (request.getUsername() != null) {
             existingUser.setUsername(request.getUsername());
@@ -115,6 +125,28 @@ public class UserCrudServiceImpl
         }
 
         User savedUser = repository.save(existingUser);
+
+        // Tokens issued before this change no longer describe the user
+        if (securityChanged) {
+            eventPublisher.publishEvent(new UserSecurityChangedEvent(previousUsername));
+        }
         return mapper.toDTO(savedUser);
     }
+
+    @Override
+    public void delete(String id) {
+        super.delete(id);
+        publishSecurityChange(id);
+    }
+
+    @Override
+    public void restore(String id) {
+        super.restore(id);
+        publishSecurityChange(id);
+    }
+
+    private void publishSecurityChange(String id) {
+        userRepository.findById(UUID.fromString(id))
+                .ifPresent(user -> eventPublisher.publishEvent(new UserSecurityChangedEvent(user.getUsername())));
+    }
 }
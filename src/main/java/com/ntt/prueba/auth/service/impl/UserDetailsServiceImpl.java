@@ -3,11 +3,13 @@ package com.ntt.prueba.auth.service.impl;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.stereotype.Service;
 
 import com.ntt.prueba.auth.repository.UserRepository;
 
-@Service
+/**
+ * Loads users from the database. Registered through {@link CachingUserDetailsService}
+ * (see {@code SecurityConfig}) rather than as a bean of its own.
+ */
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
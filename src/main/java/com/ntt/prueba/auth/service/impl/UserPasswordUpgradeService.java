@@ -0,0 +1,37 @@
+package com.ntt.prueba.auth.service.impl;
+
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ntt.prueba.auth.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Stores a rehashed password after a successful login when the stored hash
+ * uses an outdated algorithm or cost. Picked up by the authentication
+ * provider automatically. The cached user is evicted, but no security change
+ * event is published: the password itself did not change, so issued tokens
+ * stay valid.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserPasswordUpgradeService implements UserDetailsPasswordService {
+
+    private final UserRepository userRepository;
+    private final CachingUserDetailsService userDetailsService;
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.findByUsername(user.getUsername()).ifPresent(entity -> {
+            entity.setPassword(newPassword);
+            userRepository.save(entity);
+        });
+        userDetailsService.evict(user.getUsername());
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+}
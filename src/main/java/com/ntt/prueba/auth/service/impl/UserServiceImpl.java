@@ -3,11 +3,13 @@ package com.ntt.prueba.auth.service.impl;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.ntt.prueba.auth.entity.User;
+import com.ntt.prueba.auth.event.UserSecurityChangedEvent;
 import com.ntt.prueba.auth.repository.UserRepository;
 import com.ntt.prueba.auth.service.UserService;
 import com.ntt.prueba.exception.exception.BaseException;
@@ -20,6 +22,7 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
     // private final RoleRepository roleRepository;
 
     @Override
@@ -42,19 +45,25 @@ public class UserServiceImpl implements UserService {
     @Override
     public User updateUser(UUID id, User user) {
         return userRepository.findById(id).map(existingUser -> {
+            String previousUsername = existingUser.getUsername();
             existingUser.setUsername(user.getUsername());
             if (user.getPassword() != null && !user.getPassword().isEmpty()) {
                 existingUser.setPassword(passwordEncoder.encode(user.getPassword()));
             }
             existingUser.setRoles(user.getRoles());
-            return userRepository.save(existingUser);
+            User savedUser = userRepository.save(existingUser);
+            eventPublisher.publishEvent(new UserSecurityChangedEvent(previousUsername));
+            return savedUser;
         }).orElseThrow(() -> new BaseException("User with id " + id + " not found", HttpStatus.NOT_FOUND));
     }
 
     @Override
     public void deleteUser(UUID id) {
         userRepository.findById(id).ifPresentOrElse(
-                user -> userRepository.deleteById(id),
+                user -> {
+                    userRepository.deleteById(id);
+                    eventPublisher.publishEvent(new UserSecurityChangedEvent(user.getUsername()));
+                },
                 () -> {
                     throw new BaseException("User with id " + id + " not found", HttpStatus.NOT_FOUND);
                 });
@@ -0,0 +1,34 @@
+package com.ntt.prueba.config;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Row backing a {@link SchedulerLockProvider} lock. Mapped only so the table
+ * is created with the rest of the schema; it is read and written through JDBC.
+ */
+@Entity
+@Table(name = "scheduler_locks")
+@Data
+@NoArgsConstructor
+public class SchedulerLock {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private Instant lockedUntil;
+
+    @Column(nullable = false)
+    private Instant lockedAt;
+
+    @Column(nullable = false)
+    private String lockedBy;
+}
@@ -0,0 +1,68 @@
+package com.ntt.prueba.config;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Duration;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cluster-wide lock for scheduled jobs, kept in {@code scheduler_locks}. A lock
+ * is taken with a conditional update that only succeeds once the previous
+ * holder's {@code locked_until} has passed, so a node that dies mid-run blocks
+ * the job for at most {@code lockAtMostFor}. Lock times come from the database
+ * clock so that skew between nodes cannot shorten or stretch a lease.
+ */
+@Slf4j
+@Component
+public class SchedulerLockProvider {
+
+    static final String UPDATE_SQL = "UPDATE scheduler_locks SET locked_until = ?, locked_at = ?, locked_by = ? "
+            + "WHERE name = ? AND locked_until <= ?";
+    static final String INSERT_SQL = "INSERT INTO scheduler_locks (name, locked_until, locked_at, locked_by) "
+            + "VALUES (?, ?, ?, ?)";
+    static final String NOW_SQL = "SELECT CURRENT_TIMESTAMP";
+    static final String RELEASE_SQL = "UPDATE scheduler_locks SET locked_until = ? WHERE name = ? AND locked_by = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+    public SchedulerLockProvider(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Try to take the named lock
+     *
+     * @return {@code true} if this node now holds the lock
+     */
+    public boolean tryLock(String name, Duration lockAtMostFor) {
+        Timestamp now = databaseNow();
+        Timestamp until = Timestamp.from(now.toInstant().plus(lockAtMostFor));
+        if (jdbcTemplate.update(UPDATE_SQL, until, now, nodeId, name, now) > 0) {
+            return true;
+        }
+        try {
+            return jdbcTemplate.update(INSERT_SQL, name, until, now, nodeId) > 0;
+        } catch (DataIntegrityViolationException e) {
+            // The row exists and another node holds the lock
+            log.debug("Lock {} is held by another node", name);
+            return false;
+        }
+    }
+
+    /**
+     * Release a lock held by this node
+     */
+    public void unlock(String name) {
+        jdbcTemplate.update(RELEASE_SQL, databaseNow(), name, nodeId);
+    }
+
+    private Timestamp databaseNow() {
+        return jdbcTemplate.queryForObject(NOW_SQL, Timestamp.class);
+    }
+}
@@ -9,6 +9,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -16,8 +17,10 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import com.ntt.prueba.exception.exception.BaseException;
+import com.ntt.prueba.exception.exception.ServiceOverloadedException;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -34,6 +37,17 @@ public class GlobalExceptionHandler {
                 return new ResponseEntity<>(errorResponse, ex.getHttpStatus());
         }
 
+        @ExceptionHandler(ServiceOverloadedException.class)
+        public ResponseEntity<ErrorResponse> handleServiceOverloadedException(ServiceOverloadedException ex) {
+                ErrorResponse errorResponse = new ErrorResponse(
+
+                                ex.getMessage(),
+                                LocalDateTime.now());
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                                .body(errorResponse);
+        }
+
         @ExceptionHandler(MethodArgumentNotValidException.class)
         public ResponseEntity<ErrorResponse> handleValidationExceptions(MethodArgumentNotValidException ex) {
                 List<String> errors = ex.getBindingResult()
@@ -49,6 +63,22 @@ public class GlobalExceptionHandler {
                 return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
         }
 
+        @ExceptionHandler(HandlerMethodValidationException.class)
+        public ResponseEntity<ErrorResponse> handleMethodValidationExceptions(HandlerMethodValidationException ex) {
+                List<String> errors = ex.getParameterValidationResults()
+                                .stream()
+                                .flatMap(result -> result.getResolvableErrors().stream()
+                                                .map(error -> result.getMethodParameter().getParameterName() + ": "
+                                                                + error.getDefaultMessage()))
+                                .collect(Collectors.toList());
+
+                ErrorResponse errorResponse = new ErrorResponse(
+                                "Validation failed",
+                                LocalDateTime.now(),
+                                errors);
+                return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+
         @ExceptionHandler(DataIntegrityViolationException.class)
         public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
                 String rawMessage = Optional.ofNullable(ex.getRootCause())
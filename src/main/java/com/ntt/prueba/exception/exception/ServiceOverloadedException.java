@@ -0,0 +1,20 @@
+package com.ntt.prueba.exception.exception;
+
+import org.springframework.http.HttpStatus;
+
+import lombok.Getter;
+
+/**
+ * Raised when a bounded worker pool cannot accept more work. Mapped to
+ * {@code 503 Service Unavailable} with a {@code Retry-After} header.
+ */
+@Getter
+public class ServiceOverloadedException extends BaseException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,472 @@
+package com.ntt.prueba.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+
+/**
+ * Hot-path reader for the HMAC-signed access tokens this service issues. It works on
+ * the token in place inside the {@code Authorization} header, checks the
+ * header segment against the exact one we emit for the active key, verifies
+ * the HMAC with pooled {@link Mac} instances and scratch buffers, and only
+ * then scans the payload for {@code jti}, {@code sub}, {@code rol},
+ * {@code iat}, {@code iat_ms} and {@code exp}. No claims map, {@code Date} or intermediate
+ * string is built.
+ * <p>
+ * Anything it does not recognise, including a bad signature or an expired
+ * token, makes {@link #read} return {@code null}; the caller then goes through
+ * the full jjwt parser, which either accepts the token or raises the usual
+ * exception. The payload is only scanned once the signature is verified, so
+ * the scanner never sees input we did not produce.
+ */
+final class HmacTokenReader {
+
+    private static final byte[] BASE64URL = new byte[128];
+
+    static {
+        Arrays.fill(BASE64URL, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final String expectedHeader;
+    private final Mac prototype;
+    private final int signatureBytes;
+    private final int signatureChars;
+    // Idle scratch buffers kept for reuse; beyond this many, returned ones are left to the GC
+    private static final int MAX_POOLED = Math.max(16, 4 * Runtime.getRuntime().availableProcessors());
+    // Scratch whose buffers grew past this for an oversized token is not pooled
+    private static final int MAX_RETAINED_BUFFER = 8 * 1024;
+
+    private final ConcurrentLinkedQueue<Scratch> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    // Role names seen so far, so decoding a role does not allocate a new string every time
+    private volatile String[] knownRoles = new String[0];
+
+    HmacTokenReader(SecretKey key, String macAlgorithm, String expectedHeader) {
+        this.expectedHeader = expectedHeader;
+        try {
+            this.prototype = Mac.getInstance(macAlgorithm);
+            this.prototype.init(key);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(macAlgorithm + " is not available", e);
+        }
+        this.signatureBytes = prototype.getMacLength();
+        this.signatureChars = (signatureBytes * 8 + 5) / 6;
+    }
+
+    /**
+     * Verified claims of the token starting at {@code start}, or {@code null}
+     * if the token has to go through the full parser
+     */
+    ParsedToken read(String source, int start, long nowMillis) {
+        int headerEnd = start + expectedHeader.length();
+        if (source.length() <= headerEnd || source.charAt(headerEnd) != '.'
+                || !source.regionMatches(start, expectedHeader, 0, expectedHeader.length())) {
+            return null;
+        }
+        int payloadStart = headerEnd + 1;
+        int payloadEnd = source.indexOf('.', payloadStart);
+        if (payloadEnd < 0 || source.length() - payloadEnd - 1 != signatureChars) {
+            return null;
+        }
+        Scratch scratch = pool.poll();
+        if (scratch != null) {
+            pooled.decrementAndGet();
+        } else {
+            scratch = new Scratch(prototype);
+        }
+        try {
+            if (!verify(scratch, source, start, payloadEnd)) {
+                return null;
+            }
+            int length = decode(source, payloadStart, payloadEnd, scratch.payload(payloadEnd - payloadStart));
+            if (length < 0) {
+                return null;
+            }
+            return scan(scratch.payload, length, nowMillis);
+        } finally {
+            release(scratch);
+        }
+    }
+
+    private void release(Scratch scratch) {
+        if (scratch.retainedBytes() > MAX_RETAINED_BUFFER) {
+            return;
+        }
+        if (pooled.incrementAndGet() > MAX_POOLED) {
+            pooled.decrementAndGet();
+            return;
+        }
+        pool.offer(scratch);
+    }
+
+    private boolean verify(Scratch scratch, String source, int start, int signedEnd) {
+        byte[] signed = scratch.input(signedEnd - start);
+        for (int i = start; i < signedEnd; i++) {
+            char c = source.charAt(i);
+            if (c > 0x7F) {
+                return false;
+            }
+            signed[i - start] = (byte) c;
+        }
+        scratch.mac.update(signed, 0, signedEnd - start);
+        try {
+            scratch.mac.doFinal(scratch.digest, 0);
+        } catch (GeneralSecurityException e) {
+            return false;
+        }
+        return decode(source, signedEnd + 1, source.length(), scratch.signature) == signatureBytes
+                && MessageDigest.isEqual(scratch.digest, scratch.signature);
+    }
+
+    /**
+     * Decode unpadded base64url into {@code target}. Only the canonical
+     * encoding is accepted: a dangling character or non-zero unused bits in
+     * the last one would let several strings decode to the same bytes.
+     *
+     * @return number of bytes written, or -1 if the input is not base64url
+     */
+    private static int decode(String source, int from, int to, byte[] target) {
+        int out = 0;
+        int bits = 0;
+        int buffer = 0;
+        for (int i = from; i < to; i++) {
+            char c = source.charAt(i);
+            int value = c < 128 ? BASE64URL[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            buffer = (buffer << 6) | value;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                if (out == target.length) {
+                    return -1;
+                }
+                target[out++] = (byte) (buffer >> bits);
+            }
+        }
+        if (bits >= 6 || (buffer & ((1 << bits) - 1)) != 0) {
+            return -1;
+        }
+        return out;
+    }
+
+    private ParsedToken scan(byte[] json, int length, long nowMillis) {
+        JsonCursor cursor = new JsonCursor(json, length);
+        String tokenId = null;
+        String subject = null;
+        List<String> roles = List.of();
+        long expiresAt = -1;
+        long issuedAt = -1;
+        long issuedAtMillis = -1;
+        if (!cursor.consume('{')) {
+            return null;
+        }
+        if (!cursor.consume('}')) {
+            do {
+                int nameStart = cursor.stringStart();
+                if (nameStart < 0) {
+                    return null;
+                }
+                int nameEnd = cursor.stringEnd();
+                if (nameEnd < 0 || !cursor.consume(':')) {
+                    return null;
+                }
+                if (cursor.is(nameStart, nameEnd, "sub")) {
+                    subject = cursor.readString();
+                } else if (cursor.is(nameStart, nameEnd, "jti")) {
+                    tokenId = cursor.readString();
+                } else if (cursor.is(nameStart, nameEnd, "rol")) {
+                    roles = readRoles(cursor);
+                } else if (cursor.is(nameStart, nameEnd, "exp")) {
+                    expiresAt = cursor.readLong();
+                } else if (cursor.is(nameStart, nameEnd, "iat")) {
+                    issuedAt = cursor.readLong();
+                } else if (cursor.is(nameStart, nameEnd, ParsedToken.ISSUED_AT_MILLIS)) {
+                    issuedAtMillis = cursor.readLong();
+                } else if (cursor.is(nameStart, nameEnd, "nbf")) {
+                    // Never issued by us; let the full parser enforce it
+                    return null;
+                } else if (!cursor.skipValue()) {
+                    return null;
+                }
+                if (cursor.failed()) {
+                    return null;
+                }
+            } while (cursor.consume(','));
+            if (!cursor.consume('}')) {
+                return null;
+            }
+        }
+        if (expiresAt < 0 || nowMillis > expiresAt * 1000) {
+            // Expired or no expiry: the full parser raises the right exception or applies its own rules
+            return null;
+        }
+        return ParsedToken.builder()
+                .tokenId(tokenId)
+                .subject(subject)
+                .roles(roles)
+                .expiresAt(Instant.ofEpochSecond(expiresAt))
+                .issuedAt(issuedAtMillis >= 0 ? Instant.ofEpochMilli(issuedAtMillis)
+                        : issuedAt >= 0 ? Instant.ofEpochSecond(issuedAt) : null)
+                .build();
+    }
+
+    private List<String> readRoles(JsonCursor cursor) {
+        if (!cursor.consume('[')) {
+            cursor.fail();
+            return null;
+        }
+        if (cursor.consume(']')) {
+            return List.of();
+        }
+        String first = null;
+        List<String> more = null;
+        do {
+            int start = cursor.stringStart();
+            int end = start < 0 ? -1 : cursor.stringEnd();
+            if (end < 0) {
+                cursor.fail();
+                return null;
+            }
+            String role = role(cursor, start, end);
+            if (first == null) {
+                first = role;
+            } else {
+                if (more == null) {
+                    more = new ArrayList<>(4);
+                    more.add(first);
+                }
+                more.add(role);
+            }
+        } while (cursor.consume(','));
+        if (!cursor.consume(']')) {
+            cursor.fail();
+            return null;
+        }
+        return more == null ? List.of(first) : List.copyOf(more);
+    }
+
+    private String role(JsonCursor cursor, int start, int end) {
+        String[] roles = knownRoles;
+        for (String role : roles) {
+            if (cursor.is(start, end, role)) {
+                return role;
+            }
+        }
+        String role = cursor.string(start, end);
+        if (roles.length < 32) {
+            String[] grown = Arrays.copyOf(roles, roles.length + 1);
+            grown[roles.length] = role;
+            knownRoles = grown;
+        }
+        return role;
+    }
+
+    /**
+     * Minimal JSON reader over a byte range. Strings with escapes and numbers
+     * other than plain non-negative integers are reported as failures, so the
+     * caller falls back to the full parser.
+     */
+    private static final class JsonCursor {
+
+        private final byte[] json;
+        private final int length;
+        private int position;
+        private boolean failed;
+
+        JsonCursor(byte[] json, int length) {
+            this.json = json;
+            this.length = length;
+        }
+
+        boolean failed() {
+            return failed;
+        }
+
+        void fail() {
+            failed = true;
+        }
+
+        boolean consume(char expected) {
+            skipWhitespace();
+            if (position < length && json[position] == expected) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        /** Position just after the opening quote, or -1 */
+        int stringStart() {
+            return consume('"') ? position : -1;
+        }
+
+        /** Position of the closing quote, after which the cursor now stands, or -1 */
+        int stringEnd() {
+            while (position < length) {
+                byte b = json[position];
+                if (b == '\\') {
+                    return -1;
+                }
+                if (b == '"') {
+                    return position++;
+                }
+                position++;
+            }
+            return -1;
+        }
+
+        boolean is(int start, int end, String name) {
+            if (end - start != name.length()) {
+                return false;
+            }
+            for (int i = 0; i < name.length(); i++) {
+                if (json[start + i] != name.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        String string(int start, int end) {
+            return new String(json, start, end - start, StandardCharsets.UTF_8);
+        }
+
+        String readString() {
+            int start = stringStart();
+            int end = start < 0 ? -1 : stringEnd();
+            if (end < 0) {
+                failed = true;
+                return null;
+            }
+            return string(start, end);
+        }
+
+        long readLong() {
+            skipWhitespace();
+            long value = 0;
+            int digits = 0;
+            while (position < length && json[position] >= '0' && json[position] <= '9' && digits < 18) {
+                value = value * 10 + (json[position++] - '0');
+                digits++;
+            }
+            if (digits == 0 || (position < length && (json[position] == '.' || json[position] == 'e'
+                    || json[position] == 'E' || (json[position] >= '0' && json[position] <= '9')))) {
+                failed = true;
+                return -1;
+            }
+            return value;
+        }
+
+        boolean skipValue() {
+            skipWhitespace();
+            if (position >= length) {
+                return false;
+            }
+            byte b = json[position];
+            if (b == '"') {
+                position++;
+                return skipStringBody();
+            }
+            if (b == '{' || b == '[') {
+                int depth = 0;
+                while (position < length) {
+                    byte c = json[position++];
+                    if (c == '"') {
+                        if (!skipStringBody()) {
+                            return false;
+                        }
+                    } else if (c == '{' || c == '[') {
+                        depth++;
+                    } else if (c == '}' || c == ']') {
+                        if (--depth == 0) {
+                            return true;
+                        }
+                    }
+                }
+                return false;
+            }
+            // Number, true, false or null
+            int start = position;
+            while (position < length && json[position] != ',' && json[position] != '}'
+                    && json[position] != ']' && json[position] > ' ') {
+                position++;
+            }
+            return position > start;
+        }
+
+        private boolean skipStringBody() {
+            while (position < length) {
+                byte b = json[position++];
+                if (b == '\\') {
+                    position++;
+                } else if (b == '"') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (position < length && json[position] <= ' ') {
+                position++;
+            }
+        }
+    }
+
+    /**
+     * Per-call working state, reused through the pool so the hot path does not
+     * allocate buffers or clone the {@link Mac}
+     */
+    private static final class Scratch {
+
+        final Mac mac;
+        final byte[] digest;
+        final byte[] signature;
+        byte[] input = new byte[512];
+        byte[] payload = new byte[512];
+
+        Scratch(Mac prototype) {
+            this.digest = new byte[prototype.getMacLength()];
+            this.signature = new byte[prototype.getMacLength()];
+            try {
+                this.mac = (Mac) prototype.clone();
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException(prototype.getAlgorithm() + " cannot be cloned", e);
+            }
+        }
+
+        int retainedBytes() {
+            return Math.max(input.length, payload.length);
+        }
+
+        byte[] input(int size) {
+            if (input.length < size) {
+                input = new byte[size];
+            }
+            return input;
+        }
+
+        byte[] payload(int encodedSize) {
+            int size = encodedSize * 3 / 4 + 1;
+            if (payload.length < size) {
+                payload = new byte[size];
+            }
+            return payload;
+        }
+    }
+}
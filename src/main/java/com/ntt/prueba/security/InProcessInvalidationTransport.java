@@ -0,0 +1,30 @@
+package com.ntt.prueba.security;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Transport that delivers invalidations synchronously to the subscribers of
+ * the same JVM. Enough for a single node, and lets tests wire several buses
+ * together as if they were separate nodes.
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.invalidation.transport", havingValue = "in-process")
+public class InProcessInvalidationTransport implements InvalidationTransport {
+
+    private final List<Consumer<Invalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(Invalidation invalidation) {
+        listeners.forEach(listener -> listener.accept(invalidation));
+    }
+
+    @Override
+    public void subscribe(Consumer<Invalidation> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,31 @@
+package com.ntt.prueba.security;
+
+import java.time.Instant;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Cache invalidation exchanged between nodes through an
+ * {@link InvalidationTransport}
+ */
+@Value
+@Builder(toBuilder = true)
+public class Invalidation {
+
+    public enum Type {
+        /** The user's cached details and earlier tokens are stale; {@code subject} is set */
+        USER_CHANGED,
+        /** A single access token was revoked; {@code tokenId} and {@code expiresAt} are set */
+        TOKEN_REVOKED
+    }
+
+    Type type;
+    String subject;
+    String tokenId;
+    Instant expiresAt;
+    /** Node that published it, so a node can skip its own invalidations */
+    String origin;
+    /** When the transport recorded it; {@code null} if the transport does not stamp invalidations */
+    Instant createdAt;
+}
@@ -0,0 +1,82 @@
+package com.ntt.prueba.security;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ntt.prueba.auth.event.AccessTokenRevokedEvent;
+import com.ntt.prueba.auth.event.UserSecurityChangedEvent;
+import com.ntt.prueba.auth.service.impl.CachingUserDetailsService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the in-memory security caches of every node in step. Local changes
+ * are applied by the caches' own event listeners and, once committed,
+ * forwarded through the {@link InvalidationTransport}; invalidations from
+ * other nodes are applied to the user-details cache, the subject revocation
+ * list and the token deny list. Request-path checks only ever read those
+ * local structures.
+ */
+@Slf4j
+@Component
+public class InvalidationBus {
+
+    private final InvalidationTransport transport;
+    private final CachingUserDetailsService userDetailsService;
+    private final SubjectRevocationList subjectRevocationList;
+    private final TokenDenyList tokenDenyList;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public InvalidationBus(InvalidationTransport transport, CachingUserDetailsService userDetailsService,
+            SubjectRevocationList subjectRevocationList, TokenDenyList tokenDenyList) {
+        this.transport = transport;
+        this.userDetailsService = userDetailsService;
+        this.subjectRevocationList = subjectRevocationList;
+        this.tokenDenyList = tokenDenyList;
+        transport.subscribe(this::apply);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        publish(Invalidation.builder()
+                .type(Invalidation.Type.USER_CHANGED)
+                .subject(event.getUsername())
+                .build());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccessTokenRevoked(AccessTokenRevokedEvent event) {
+        publish(Invalidation.builder()
+                .type(Invalidation.Type.TOKEN_REVOKED)
+                .tokenId(event.getTokenId())
+                .expiresAt(event.getExpiresAt())
+                .build());
+    }
+
+    void apply(Invalidation invalidation) {
+        if (nodeId.equals(invalidation.getOrigin())) {
+            return;
+        }
+        switch (invalidation.getType()) {
+            case USER_CHANGED -> {
+                userDetailsService.evict(invalidation.getSubject());
+                // Revoke as of the recorded change, so a redelivery does not move the cut-off forward
+                Instant at = invalidation.getCreatedAt() != null ? invalidation.getCreatedAt() : Instant.now();
+                subjectRevocationList.revoke(invalidation.getSubject(), at);
+            }
+            case TOKEN_REVOKED -> tokenDenyList.revoke(invalidation.getTokenId(), invalidation.getExpiresAt());
+        }
+    }
+
+    private void publish(Invalidation invalidation) {
+        try {
+            transport.publish(invalidation.toBuilder().origin(nodeId).build());
+        } catch (RuntimeException e) {
+            // Other nodes catch up through the cache TTL and token expiry
+            log.warn("Failed to publish invalidation {}: {}", invalidation, e.getMessage());
+        }
+    }
+}
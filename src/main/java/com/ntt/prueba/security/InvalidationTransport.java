@@ -0,0 +1,15 @@
+package com.ntt.prueba.security;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link Invalidation}s between application nodes. Delivery is at
+ * least once and may include a node's own invalidations; applying one is
+ * idempotent.
+ */
+public interface InvalidationTransport {
+
+    void publish(Invalidation invalidation);
+
+    void subscribe(Consumer<Invalidation> listener);
+}
@@ -0,0 +1,62 @@
+package com.ntt.prueba.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+/**
+ * PBKDF2 encoder that records its iteration count in the hash, as
+ * {@code <iterations>$<hash>}, so a hash made with fewer iterations than
+ * configured still matches and is reported by {@link #upgradeEncoding}.
+ * {@link Pbkdf2PasswordEncoder} alone neither stores the count nor ever asks
+ * for an upgrade. Hashes without a count were made before it was stored;
+ * they are checked with the configured count and always upgraded.
+ */
+final class IterationAwarePbkdf2PasswordEncoder implements PasswordEncoder {
+
+    private static final char SEPARATOR = '$';
+
+    private final int iterations;
+    private final Pbkdf2PasswordEncoder encoder;
+
+    IterationAwarePbkdf2PasswordEncoder(int iterations) {
+        this.iterations = iterations;
+        this.encoder = PasswordCostCalibrator.pbkdf2(iterations);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return iterations + String.valueOf(SEPARATOR) + encoder.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        int stored = iterationsOf(encodedPassword);
+        if (stored < 0) {
+            return encoder.matches(rawPassword, encodedPassword);
+        }
+        String hash = encodedPassword.substring(encodedPassword.indexOf(SEPARATOR) + 1);
+        Pbkdf2PasswordEncoder storedEncoder = stored == iterations ? encoder : PasswordCostCalibrator.pbkdf2(stored);
+        return storedEncoder.matches(rawPassword, hash);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return encodedPassword != null && iterationsOf(encodedPassword) < iterations;
+    }
+
+    /** Iteration count stored in the hash, or -1 if it has none */
+    private static int iterationsOf(String encodedPassword) {
+        int separator = encodedPassword.indexOf(SEPARATOR);
+        if (separator <= 0 || separator > 10) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword, 0, separator, 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.ntt.prueba.security;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Change feed in the {@code revocation_events} table, polled by sequence.
+ * Sequences can commit out of order, so the cursor only advances past rows
+ * older than {@code commit-grace}, measured on the database clock that
+ * stamped them; younger rows are read again on the next poll, which is
+ * harmless because applying an invalidation is idempotent: user changes are
+ * applied as of the row's {@code created_at}, not the time they are read. On
+ * startup the token revocations that have not expired yet and the user
+ * changes younger than the access-token lifetime are replayed, so a new node
+ * starts with complete deny lists. Rows are therefore kept for at least that
+ * lifetime, whatever {@code retention} says.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.security.invalidation.transport", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcInvalidationTransport implements InvalidationTransport {
+
+    static final String INSERT_SQL = "INSERT INTO revocation_events "
+            + "(event_type, subject, token_id, expires_at, origin, created_at) VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)";
+    static final String POLL_SQL = "SELECT seq, event_type, subject, token_id, expires_at, origin, created_at "
+            + "FROM revocation_events WHERE seq > ? ORDER BY seq LIMIT ?";
+    static final String LIVE_REVOCATIONS_SQL = "SELECT seq, event_type, subject, token_id, expires_at, origin, "
+            + "created_at FROM revocation_events WHERE (event_type = 'TOKEN_REVOKED' AND expires_at > ?) "
+            + "OR (event_type = 'USER_CHANGED' AND created_at > ?) ORDER BY seq";
+    static final String NOW_SQL = "SELECT CURRENT_TIMESTAMP";
+    static final String PURGE_SQL = "DELETE FROM revocation_events "
+            + "WHERE created_at < ? AND (expires_at IS NULL OR expires_at < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final Duration commitGrace;
+    private final Duration retention;
+    private final Duration tokenLifetime;
+    private final List<Consumer<Invalidation>> listeners = new CopyOnWriteArrayList<>();
+    private final Counter receivedCounter;
+    private final ReentrantLock feedLock = new ReentrantLock();
+
+    private volatile boolean started;
+    // Guarded by feedLock
+    private long cursor;
+
+    public JdbcInvalidationTransport(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+            @Value("${app.security.invalidation.batch-size:500}") int batchSize,
+            @Value("${app.security.invalidation.commit-grace:5s}") Duration commitGrace,
+            @Value("${app.security.invalidation.retention:1h}") Duration retention,
+            @Value("${spring.security.jwt.expiration}") long jwtExpiration) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.commitGrace = commitGrace;
+        this.tokenLifetime = Duration.ofMillis(jwtExpiration);
+        if (retention.compareTo(tokenLifetime) < 0) {
+            // A new node must still find every user change that can reject a live token
+            log.warn("Invalidation retention {} is shorter than the access-token lifetime, using {}", retention,
+                    tokenLifetime);
+            retention = tokenLifetime;
+        }
+        this.retention = retention;
+        this.receivedCounter = meterRegistry.counter("auth.invalidation.received");
+    }
+
+    @Override
+    public void publish(Invalidation invalidation) {
+        jdbcTemplate.update(INSERT_SQL, invalidation.getType().name(), invalidation.getSubject(),
+                invalidation.getTokenId(), timestamp(invalidation.getExpiresAt()), invalidation.getOrigin());
+    }
+
+    @Override
+    public void subscribe(Consumer<Invalidation> listener) {
+        listeners.add(listener);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        feedLock.lock();
+        try {
+            List<FeedRow> live = jdbcTemplate.query(LIVE_REVOCATIONS_SQL, JdbcInvalidationTransport::mapRow,
+                    Timestamp.from(Instant.now()), Timestamp.from(databaseNow().minus(tokenLifetime)));
+            live.forEach(row -> deliver(row.invalidation()));
+            Long max = jdbcTemplate.queryForObject("SELECT MAX(seq) FROM revocation_events", Long.class);
+            cursor = max != null ? max : 0L;
+            started = true;
+            log.info("Invalidation feed started at sequence {}, {} live revocations loaded", cursor,
+                    live.size());
+        } finally {
+            feedLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.invalidation.poll-interval:1000}")
+    public int poll() {
+        if (!started) {
+            return 0;
+        }
+        feedLock.lock();
+        try {
+            Instant settled = databaseNow().minus(commitGrace);
+            long from = cursor;
+            int delivered = 0;
+            while (true) {
+                List<FeedRow> rows = jdbcTemplate.query(POLL_SQL, JdbcInvalidationTransport::mapRow, from,
+                        batchSize);
+                for (FeedRow row : rows) {
+                    deliver(row.invalidation());
+                    delivered++;
+                    from = row.seq();
+                    if (row.seq() == cursor + 1 || row.createdAt().isBefore(settled)) {
+                        // Contiguous or old enough that nothing below it can still commit
+                        cursor = row.seq();
+                    }
+                }
+                if (rows.size() < batchSize) {
+                    return delivered;
+                }
+            }
+        } finally {
+            feedLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.invalidation.purge-interval:600000}")
+    public int purge() {
+        Instant now = databaseNow();
+        return jdbcTemplate.update(PURGE_SQL, Timestamp.from(now.minus(retention)), Timestamp.from(now));
+    }
+
+    private Instant databaseNow() {
+        return jdbcTemplate.queryForObject(NOW_SQL, Timestamp.class).toInstant();
+    }
+
+    private void deliver(Invalidation invalidation) {
+        receivedCounter.increment();
+        for (Consumer<Invalidation> listener : listeners) {
+            try {
+                listener.accept(invalidation);
+            } catch (RuntimeException e) {
+                log.warn("Failed to apply invalidation {}: {}", invalidation, e.getMessage());
+            }
+        }
+    }
+
+    private static FeedRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp expiresAt = rs.getTimestamp("expires_at");
+        Instant createdAt = rs.getTimestamp("created_at").toInstant();
+        Invalidation invalidation = Invalidation.builder()
+                .type(Invalidation.Type.valueOf(rs.getString("event_type")))
+                .subject(rs.getString("subject"))
+                .tokenId(rs.getString("token_id"))
+                .expiresAt(expiresAt != null ? expiresAt.toInstant() : null)
+                .origin(rs.getString("origin"))
+                .createdAt(createdAt)
+                .build();
+        return new FeedRow(rs.getLong("seq"), createdAt, invalidation);
+    }
+
+    private static Timestamp timestamp(Instant instant) {
+        return instant != null ? Timestamp.from(instant) : null;
+    }
+
+    private record FeedRow(long seq, Instant createdAt, Invalidation invalidation) {
+    }
+}
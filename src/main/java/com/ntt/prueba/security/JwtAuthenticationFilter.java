@@ -2,6 +2,7 @@ package com.ntt.prueba.security;
 
 import java.io.IOException;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -27,6 +28,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final SubjectRevocationList subjectRevocationList;
+    private final TokenDenyList tokenDenyList;
+
+    // When enabled, authorities come from the verified "rol" claim and no user lookup is made
+    @Value("${spring.security.jwt.claims-trusted:false}")
+    private boolean claimsTrusted;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        // Public endpoints never need the token, so they skip parsing and signature checks entirely
+        return PublicEndpoints.MATCHER.matches(request);
+    }
 
     @Override
     protected void doFilterInternal(
@@ -40,16 +53,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        final String jwt = authHeader.substring(7);
-
         String userEmail = null;
         try {
-            userEmail = jwtService.extractUsername(jwt);
+            // Read in place after "Bearer " rather than copying the token out of the header
+            ParsedToken parsedToken = jwtService.parseToken(authHeader, 7);
+            userEmail = parsedToken.getSubject();
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                UserDetails userDetails = claimsTrusted
+                        ? parsedToken.toUserDetails()
+                        : this.userDetailsService.loadUserByUsername(userEmail);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (jwtService.isTokenValid(parsedToken, userDetails)
+                        && !tokenDenyList.isRevoked(parsedToken.getTokenId())
+                        && !(claimsTrusted && subjectRevocationList.isRevoked(parsedToken))) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -0,0 +1,233 @@
+package com.ntt.prueba.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.crypto.SecretKey;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureException;
+
+/**
+ * Immutable key ring: the key that signs new tokens and every key, indexed by
+ * {@code kid}, that tokens may still be verified with. The parser resolves
+ * the verification key from the token header with a single map lookup. The
+ * ring and its parser are thread-safe, so one instance is shared by every
+ * request until the keys are rotated or reloaded, which builds a new ring.
+ */
+public final class JwtKeyMaterial {
+
+    public static final String HS256 = "HS256";
+    public static final String HS384 = "HS384";
+    public static final String HS512 = "HS512";
+    public static final String RS256 = "RS256";
+    public static final String ES256 = "ES256";
+    public static final String EDDSA = "EdDSA";
+
+    private final String algorithm;
+    private final String activeKeyId;
+    private final Key signingKey;
+    private final Map<String, VerificationKey> verificationKeys;
+    private final JwtParser parser;
+    private final HmacTokenReader tokenReader;
+
+    private JwtKeyMaterial(String algorithm, String activeKeyId, Key signingKey,
+            Map<String, VerificationKey> verificationKeys) {
+        this.algorithm = algorithm;
+        this.activeKeyId = activeKeyId;
+        this.signingKey = signingKey;
+        this.verificationKeys = Collections.unmodifiableMap(verificationKeys);
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return verificationKey(header.getKeyId());
+                    }
+                })
+                .build();
+        this.tokenReader = signingKey instanceof SecretKey secretKey ? hmacTokenReader(activeKeyId, secretKey) : null;
+    }
+
+    public static JwtKeyMaterial fromSecret(String secret) {
+        return single(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)));
+    }
+
+    /**
+     * Fresh key for the algorithm. Asymmetric keys generated this way only
+     * live in this process; use a key store when several nodes sign tokens.
+     */
+    public static JwtKeyMaterial generate(String algorithm) {
+        return switch (algorithm) {
+            case HS256 -> single(Jwts.SIG.HS256.key().build());
+            case RS256 -> single(RS256, Jwts.SIG.RS256.keyPair().build());
+            case ES256 -> single(ES256, Jwts.SIG.ES256.keyPair().build());
+            case EDDSA -> single(EDDSA, Jwks.CRV.Ed25519.keyPair().build());
+            default -> throw new IllegalArgumentException("Unsupported JWT algorithm: " + algorithm);
+        };
+    }
+
+    /**
+     * Every key entry in the store verifies under its alias as {@code kid};
+     * the entry named {@code activeAlias} also signs. Rotating is adding the
+     * new entry, making it active, and removing the old one once the tokens it
+     * signed have expired.
+     */
+    public static JwtKeyMaterial fromKeyStore(KeyStore keyStore, char[] password, String activeAlias) {
+        try {
+            Key activeKey = keyStore.getKey(activeAlias, password);
+            if (!(activeKey instanceof PrivateKey privateKey)) {
+                throw new IllegalArgumentException("Key store has no private key under alias " + activeAlias);
+            }
+            Map<String, VerificationKey> keys = new LinkedHashMap<>();
+            for (String alias : Collections.list(keyStore.aliases())) {
+                Certificate certificate = keyStore.getCertificate(alias);
+                if (keyStore.isKeyEntry(alias) && certificate != null) {
+                    keys.put(alias, VerificationKey.of(alias, certificate.getPublicKey(), null));
+                }
+            }
+            String algorithm = switch (privateKey.getAlgorithm()) {
+                case "RSA" -> RS256;
+                case "EC" -> ES256;
+                default -> EDDSA;
+            };
+            return new JwtKeyMaterial(algorithm, activeAlias, privateKey, keys);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Unable to read JWT keys from the key store", e);
+        }
+    }
+
+    /**
+     * New ring signing with a freshly generated key of the same algorithm.
+     * The keys of this ring keep verifying until {@code retireAt}, so tokens
+     * already issued stay valid for their whole lifetime.
+     */
+    public JwtKeyMaterial rotate(Instant retireAt) {
+        JwtKeyMaterial next = generate(algorithm);
+        Map<String, VerificationKey> keys = new LinkedHashMap<>();
+        verificationKeys.forEach((kid, key) -> keys.put(kid, key.retireAt() == null ? key.retiring(retireAt) : key));
+        keys.putAll(next.verificationKeys);
+        return new JwtKeyMaterial(algorithm, next.activeKeyId, next.signingKey, keys);
+    }
+
+    /**
+     * Ring without the keys whose rotation window has closed, or this ring if
+     * there are none.
+     */
+    public JwtKeyMaterial withoutRetired(Instant now) {
+        Map<String, VerificationKey> keys = new LinkedHashMap<>(verificationKeys);
+        if (!keys.values().removeIf(key -> key.retireAt() != null && !key.retireAt().isAfter(now))) {
+            return this;
+        }
+        return new JwtKeyMaterial(algorithm, activeKeyId, signingKey, keys);
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    public Key getSigningKey() {
+        return signingKey;
+    }
+
+    public JwtParser getParser() {
+        return parser;
+    }
+
+    /**
+     * Allocation-light reader for tokens signed with the active key, or
+     * {@code null} when that key is not an HMAC secret
+     */
+    HmacTokenReader getTokenReader() {
+        return tokenReader;
+    }
+
+    /**
+     * Public keys in JWK form. Empty for HMAC, whose key must never leave the
+     * service.
+     */
+    public List<PublicJwk<?>> getPublicJwks() {
+        return verificationKeys.values().stream()
+                .map(VerificationKey::jwk)
+                .filter(jwk -> jwk != null)
+                .toList();
+    }
+
+    Key verificationKey(String keyId) {
+        // Tokens issued before key ids were added carry none; they can only be from the active key
+        VerificationKey key = verificationKeys.get(keyId != null ? keyId : activeKeyId);
+        if (key == null) {
+            throw new SignatureException("Unknown JWT key id: " + keyId);
+        }
+        return key.key();
+    }
+
+    private static HmacTokenReader hmacTokenReader(String keyId, SecretKey key) {
+        // The exact header segment JwtService emits for this key; the key length picks HS256, HS384 or HS512
+        String token = Jwts.builder().header().keyId(keyId).and().subject("").signWith(key).compact();
+        String header = token.substring(0, token.indexOf('.'));
+        String decoded = new String(Decoders.BASE64URL.decode(header), StandardCharsets.UTF_8);
+        for (String bits : new String[] { "256", "384", "512" }) {
+            if (decoded.contains("\"alg\":\"HS" + bits + "\"")) {
+                return new HmacTokenReader(key, "HmacSHA" + bits, header);
+            }
+        }
+        return null;
+    }
+
+    private static JwtKeyMaterial single(SecretKey key) {
+        String keyId = Jwks.builder().key(key).idFromThumbprint().build().getId();
+        Map<String, VerificationKey> keys = new LinkedHashMap<>();
+        keys.put(keyId, new VerificationKey(key, null, null));
+        return new JwtKeyMaterial(hmacAlgorithm(key), keyId, key, keys);
+    }
+
+    private static String hmacAlgorithm(SecretKey key) {
+        // Keys.hmacShaKeyFor names the key after the strongest HMAC its length allows
+        return switch (key.getAlgorithm()) {
+            case "HmacSHA512" -> HS512;
+            case "HmacSHA384" -> HS384;
+            default -> HS256;
+        };
+    }
+
+    private static JwtKeyMaterial single(String algorithm, KeyPair keyPair) {
+        String keyId = Jwks.builder().key(keyPair.getPublic()).idFromThumbprint().build().getId();
+        Map<String, VerificationKey> keys = new LinkedHashMap<>();
+        keys.put(keyId, VerificationKey.of(keyId, keyPair.getPublic(), null));
+        return new JwtKeyMaterial(algorithm, keyId, keyPair.getPrivate(), keys);
+    }
+
+    private record VerificationKey(Key key, PublicJwk<?> jwk, Instant retireAt) {
+
+        static VerificationKey of(String keyId, PublicKey key, Instant retireAt) {
+            return new VerificationKey(key, Jwks.builder().key(key).id(keyId).publicKeyUse("sig").build(),
+                    retireAt);
+        }
+
+        VerificationKey retiring(Instant at) {
+            return new VerificationKey(key, jwk, at);
+        }
+    }
+}
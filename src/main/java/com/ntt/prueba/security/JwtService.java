@@ -1,37 +1,146 @@
 package com.ntt.prueba.security;
 
-import java.security.Key;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 
-import javax.crypto.SecretKey;
-
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import com.ntt.prueba.auth.entity.User;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 public class JwtService {
 
-    @Value("${spring.security.jwt.secret}")
+    @Value("${spring.security.jwt.secret:}")
     private String secretKey;
 
+    // HS256 | RS256 | ES256 | EdDSA; with a secret the HMAC strength follows its length
+    @Value("${spring.security.jwt.algorithm:HS256}")
+    private String algorithm;
+
+    @Value("${spring.security.jwt.key-store.location:}")
+    private String keyStoreLocation;
+
+    @Value("${spring.security.jwt.key-store.password:}")
+    private String keyStorePassword;
+
+    @Value("${spring.security.jwt.key-store.active-alias:}")
+    private String activeKeyAlias;
+
     @Value("${spring.security.jwt.expiration}")
     private long jwtExpiration;
 
     @Value("${spring.security.jwt.refresh-expiration}")
     private long jwtRefreshExpiration;
 
+    // Built once from the configured keys; replaced as a whole on reload or rotation
+    private volatile JwtKeyMaterial keyMaterial;
+
+    // Serializes read-modify-write updates of keyMaterial
+    private final ReentrantLock keyLock = new ReentrantLock();
+
+    // Present when app.security.token-cache.enabled is set
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired(required = false)
+    public void setVerifiedTokenCache(VerifiedTokenCache verifiedTokenCache) {
+        this.verifiedTokenCache = verifiedTokenCache;
+    }
+
+    @PostConstruct
+    void initKeyMaterial() {
+        if (StringUtils.hasText(keyStoreLocation)) {
+            this.keyMaterial = JwtKeyMaterial.fromKeyStore(loadKeyStore(), keyStorePassword.toCharArray(),
+                    activeKeyAlias);
+        } else if (!StringUtils.hasText(algorithm) || algorithm.startsWith("HS")) {
+            this.keyMaterial = JwtKeyMaterial.fromSecret(secretKey);
+        } else {
+            log.warn("No JWT key store configured, generated an ephemeral {} key pair: tokens will not verify "
+                    + "on other nodes or after a restart", algorithm);
+            this.keyMaterial = JwtKeyMaterial.generate(algorithm);
+        }
+        log.info("Signing JWTs with {} key {}", keyMaterial.getAlgorithm(), keyMaterial.getActiveKeyId());
+    }
+
+    /**
+     * Replace the signing secret. Tokens signed with the previous secret stop
+     * validating as soon as this method returns.
+     */
+    public void reloadSecret(String newSecret) {
+        JwtKeyMaterial reloaded = JwtKeyMaterial.fromSecret(newSecret);
+        keyLock.lock();
+        try {
+            this.keyMaterial = reloaded;
+        } finally {
+            keyLock.unlock();
+        }
+        invalidateVerifiedTokens();
+    }
+
+    /**
+     * Sign with a freshly generated key from now on. The previous keys keep
+     * verifying for one access-token lifetime, so no issued token is cut short.
+     * Only for generated asymmetric keys: an HMAC secret or a key store is
+     * shared by every node, which could not verify a key generated here, so
+     * those are rotated by reloading the secret or the key store instead.
+     */
+    public void rotateKeys() {
+        if (StringUtils.hasText(keyStoreLocation) || keyMaterial.getAlgorithm().startsWith("HS")) {
+            throw new IllegalStateException("JWT keys from a shared secret or key store cannot be rotated in-process");
+        }
+        keyLock.lock();
+        try {
+            this.keyMaterial = keyMaterial.rotate(Instant.now().plusMillis(jwtExpiration));
+        } finally {
+            keyLock.unlock();
+        }
+        log.info("Rotated JWT signing key to {}", keyMaterial.getActiveKeyId());
+    }
+
+    @Scheduled(fixedDelayString = "${spring.security.jwt.retired-key-prune-interval:60000}")
+    public void pruneRetiredKeys() {
+        keyLock.lock();
+        try {
+            JwtKeyMaterial pruned = keyMaterial.withoutRetired(Instant.now());
+            if (pruned == keyMaterial) {
+                return;
+            }
+            this.keyMaterial = pruned;
+        } finally {
+            keyLock.unlock();
+        }
+        invalidateVerifiedTokens();
+    }
+
+    /**
+     * JSON Web Key Set with the public verification keys, for services that
+     * verify our tokens locally.
+     */
+    public Map<String, Object> getJwks() {
+        return Map.of("keys", List.copyOf(keyMaterial.getPublicJwks()));
+    }
+
     public long getRefreshExpiration() {
         return jwtRefreshExpiration;
     }
@@ -58,18 +167,58 @@ public class JwtService {
             User user,
             long expiration) {
 
+        JwtKeyMaterial keys = keyMaterial;
+        long now = System.currentTimeMillis();
         return Jwts
                 .builder()
+                .header().keyId(keys.getActiveKeyId()).and()
                 .claims(extraClaims)
+                .id(UUID.randomUUID().toString())
                 .claim("sub", user.getUsername())
                 .claim("name", user.getName())
                 .claim("rol", user.getRoles().stream().map(r -> r.getName()).toList())
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey())
+                .claim(ParsedToken.ISSUED_AT_MILLIS, now)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
+                .signWith(keys.getSigningKey())
                 .compact();
     }
 
+    /**
+     * Verify the token signature once and expose its claims as a
+     * {@link ParsedToken}.
+     */
+    public ParsedToken parseToken(String token) {
+        return parseToken(token, 0);
+    }
+
+    /**
+     * Same as {@link #parseToken(String)} for a token that starts at
+     * {@code offset} in {@code source}, such as an {@code Authorization}
+     * header value. Tokens signed with the active HMAC key are read in place
+     * without building a claims map; anything else goes through jjwt.
+     */
+    public ParsedToken parseToken(String source, int offset) {
+        HmacTokenReader reader = keyMaterial.getTokenReader();
+        if (verifiedTokenCache == null && reader != null) {
+            ParsedToken parsed = reader.read(source, offset, System.currentTimeMillis());
+            if (parsed != null) {
+                return parsed;
+            }
+        }
+        String token = offset == 0 ? source : source.substring(offset);
+        if (verifiedTokenCache == null) {
+            return ParsedToken.fromClaims(verifyClaims(token));
+        }
+        return verified(token).parsedToken();
+    }
+
+    public boolean isTokenValid(ParsedToken token, UserDetails userDetails) {
+        return token.getSubject() != null
+                && token.getSubject().equals(userDetails.getUsername())
+                && !token.isExpired();
+    }
+
     public boolean isTokenValid(String token, UserDetails userDetails) {
         final String username = extractUsername(token);
         return (username.equals(userDetails.getUsername())) &&
@@ -85,14 +234,35 @@ public class JwtService {
     }
 
     public Claims extractAllClaims(String token) {
-        JwtParser parser = Jwts.parser()
-                .verifyWith((SecretKey) getSignInKey())
-                .build();
-        return parser.parseSignedClaims(token).getPayload();
+        if (verifiedTokenCache == null) {
+            return verifyClaims(token);
+        }
+        return verified(token).claims();
+    }
+
+    private VerifiedTokenCache.Entry verified(String token) {
+        VerifiedTokenCache.Entry entry = verifiedTokenCache.get(token);
+        // Inserted only once the signature checks out, so a forged token never reaches the cache
+        return entry != null ? entry : verifiedTokenCache.put(token, verifyClaims(token));
+    }
+
+    private Claims verifyClaims(String token) {
+        return keyMaterial.getParser().parseSignedClaims(token).getPayload();
+    }
+
+    private void invalidateVerifiedTokens() {
+        if (verifiedTokenCache != null) {
+            verifiedTokenCache.invalidateAll();
+        }
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private KeyStore loadKeyStore() {
+        try (InputStream in = new DefaultResourceLoader().getResource(keyStoreLocation).getInputStream()) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(in, keyStorePassword.toCharArray());
+            return keyStore;
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to load the JWT key store from " + keyStoreLocation, e);
+        }
     }
-}
\ No newline at end of file
+}
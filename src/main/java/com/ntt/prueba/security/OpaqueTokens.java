@@ -0,0 +1,44 @@
+package com.ntt.prueba.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Issues and digests opaque bearer tokens such as refresh tokens. Tokens carry
+ * 256 bits from {@link SecureRandom} encoded as unpadded base64url (43 chars);
+ * only their SHA-256 digest is persisted, so a leaked table cannot be replayed.
+ */
+public final class OpaqueTokens {
+
+    public static final int TOKEN_BYTES = 32;
+    public static final int DIGEST_BYTES = 32;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private OpaqueTokens() {
+    }
+
+    /**
+     * Generate a new random token
+     */
+    public static String generate() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return ENCODER.encodeToString(bytes);
+    }
+
+    /**
+     * SHA-256 digest of a token, as stored and looked up in the database
+     */
+    public static byte[] digest(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.ntt.prueba.security;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import io.jsonwebtoken.Claims;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Claims of an access token that has already been signature-verified. Built
+ * once per request so validation and authority building never parse the
+ * token again.
+ */
+@Value
+@Builder
+public class ParsedToken {
+
+    /** Issue time in milliseconds; {@code iat} only has second precision */
+    public static final String ISSUED_AT_MILLIS = "iat_ms";
+
+    String tokenId;
+    String subject;
+    List<String> roles;
+    Instant expiresAt;
+    Instant issuedAt;
+
+    public static ParsedToken fromClaims(Claims claims) {
+        return ParsedToken.builder()
+                .tokenId(claims.getId())
+                .subject(claims.getSubject())
+                .roles(readRoles(claims.get("rol")))
+                .expiresAt(claims.getExpiration() != null ? claims.getExpiration().toInstant() : null)
+                .issuedAt(readIssuedAt(claims))
+                .build();
+    }
+
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.isBefore(Instant.now());
+    }
+
+    /**
+     * Principal built from the verified claims alone, for the claims-trusted
+     * authentication mode. It carries no password.
+     */
+    public UserDetails toUserDetails() {
+        return User.withUsername(subject)
+                .password("")
+                .roles(roles.stream()
+                        .map(role -> role.replace("ROLE_", ""))
+                        .toArray(String[]::new))
+                .build();
+    }
+
+    private static Instant readIssuedAt(Claims claims) {
+        if (claims.get(ISSUED_AT_MILLIS) instanceof Number millis) {
+            return Instant.ofEpochMilli(millis.longValue());
+        }
+        return claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null;
+    }
+
+    private static List<String> readRoles(Object rolClaim) {
+        if (rolClaim instanceof Collection<?> values) {
+            return values.stream().map(String::valueOf).toList();
+        }
+        return List.of();
+    }
+}
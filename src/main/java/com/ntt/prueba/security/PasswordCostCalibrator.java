@@ -0,0 +1,88 @@
+package com.ntt.prueba.security;
+
+import java.time.Duration;
+import java.util.function.IntFunction;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+/**
+ * Picks the highest work factor whose hashing time stays within a target
+ * latency on the current machine, never going below a configured floor.
+ */
+final class PasswordCostCalibrator {
+
+    private static final String SAMPLE = "calibration-Sample-1@";
+    private static final int SAMPLES = 3;
+
+    static final int BCRYPT_MAX_STRENGTH = 31;
+    static final int ARGON2_SALT_LENGTH = 16;
+    static final int ARGON2_HASH_LENGTH = 32;
+    static final int ARGON2_PARALLELISM = 1;
+    static final int ARGON2_MEMORY_KIB = 19456;
+    static final int ARGON2_MAX_ITERATIONS = 10;
+
+    private PasswordCostCalibrator() {
+    }
+
+    /**
+     * BCrypt time doubles with each strength step, so stop before the next
+     * step would exceed the target.
+     */
+    static int bcryptStrength(Duration target, int minStrength) {
+        int strength = minStrength;
+        Duration elapsed = measure(BCryptPasswordEncoder::new, strength);
+        while (strength < BCRYPT_MAX_STRENGTH && elapsed.multipliedBy(2).compareTo(target) <= 0) {
+            strength++;
+            elapsed = measure(BCryptPasswordEncoder::new, strength);
+        }
+        return strength;
+    }
+
+    static int argon2Iterations(Duration target, int minIterations) {
+        int iterations = minIterations;
+        while (iterations < ARGON2_MAX_ITERATIONS
+                && measure(PasswordCostCalibrator::argon2, iterations + 1).compareTo(target) <= 0) {
+            iterations++;
+        }
+        return iterations;
+    }
+
+    /**
+     * PBKDF2 time grows linearly with iterations, so one measurement at the
+     * floor is scaled to the target.
+     */
+    static int pbkdf2Iterations(Duration target, int minIterations) {
+        Duration elapsed = measure(PasswordCostCalibrator::pbkdf2, minIterations);
+        if (elapsed.isZero() || elapsed.compareTo(target) >= 0) {
+            return minIterations;
+        }
+        long scaled = minIterations * target.toNanos() / elapsed.toNanos();
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(minIterations, scaled));
+    }
+
+    static Argon2PasswordEncoder argon2(int iterations) {
+        return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, ARGON2_PARALLELISM,
+                ARGON2_MEMORY_KIB, iterations);
+    }
+
+    static Pbkdf2PasswordEncoder pbkdf2(int iterations) {
+        return new Pbkdf2PasswordEncoder("", 16, iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    }
+
+    // Best of a few runs, after one warm-up, to keep JIT and GC noise out of the estimate
+    private static Duration measure(IntFunction<PasswordEncoder> factory, int cost) {
+        PasswordEncoder encoder = factory.apply(cost);
+        encoder.encode(SAMPLE);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return Duration.ofNanos(best);
+    }
+}
@@ -0,0 +1,182 @@
+package com.ntt.prueba.security;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.ntt.prueba.exception.exception.ServiceOverloadedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Application {@link PasswordEncoder}. Hashes with the configured algorithm
+ * through a {@link DelegatingPasswordEncoder}, so stored hashes carry an
+ * {@code {id}} prefix and legacy unprefixed BCrypt hashes still match. The
+ * work factor can be calibrated at startup to a target latency, and
+ * {@link #upgradeEncoding} reports hashes made with another algorithm or a
+ * lower cost (BCrypt strength, Argon2 parameters, or the PBKDF2 iteration
+ * count stored in the hash) so they are rehashed on the next successful login. Hashing runs
+ * on a small bounded pool so a burst of logins cannot tie up every CPU; when
+ * its queue is full callers fail fast with {@link ServiceOverloadedException}
+ * instead of piling up on request threads. Queue wait and hash time are
+ * exported as {@code auth.password.queue.wait} and {@code auth.password.hash}.
+ */
+@Slf4j
+@Component
+public class PasswordHashingService implements PasswordEncoder, DisposableBean, MeterBinder {
+
+    private final DelegatingPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+
+    private final Timer queueWaitTimer;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingService(
+            @Value("${app.security.password.algorithm:bcrypt}") String algorithm,
+            @Value("${app.security.password.calibrate:true}") boolean calibrate,
+            @Value("${app.security.password.target-latency:250ms}") Duration targetLatency,
+            @Value("${app.security.password.bcrypt-strength:10}") int bcryptStrength,
+            @Value("${app.security.password.argon2-iterations:2}") int argon2Iterations,
+            @Value("${app.security.password.pbkdf2-iterations:600000}") int pbkdf2Iterations,
+            @Value("${app.security.password.hashing-threads:0}") int hashingThreads,
+            @Value("${app.security.password.hashing-queue:100}") int hashingQueue,
+            @Value("${app.security.password.retry-after:1}") long retryAfterSeconds,
+            MeterRegistry meterRegistry) {
+        if (calibrate) {
+            switch (algorithm) {
+                case "bcrypt" -> bcryptStrength = PasswordCostCalibrator.bcryptStrength(targetLatency, bcryptStrength);
+                case "argon2" -> argon2Iterations = PasswordCostCalibrator.argon2Iterations(targetLatency,
+                        argon2Iterations);
+                case "pbkdf2" -> pbkdf2Iterations = PasswordCostCalibrator.pbkdf2Iterations(targetLatency,
+                        pbkdf2Iterations);
+                default -> {
+                }
+            }
+        }
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("argon2", PasswordCostCalibrator.argon2(argon2Iterations));
+        encoders.put("pbkdf2", new IterationAwarePbkdf2PasswordEncoder(pbkdf2Iterations));
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalArgumentException("Unsupported password algorithm: " + algorithm);
+        }
+        this.delegate = new DelegatingPasswordEncoder(algorithm, encoders);
+        // Hashes stored before the {id} prefix was introduced are plain BCrypt
+        this.delegate.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hashingQueue), namedThreads(), new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        this.queueWaitTimer = Timer.builder("auth.password.queue.wait")
+                .description("Time a hashing task waits for a worker")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("auth.password.hash")
+                .description("Password hashing time")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.password.hash")
+                .description("Password hashing time")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.rejected")
+                .description("Hashing requests rejected because the queue was full")
+                .register(meterRegistry);
+
+        log.info("Password hashing: algorithm={}, bcryptStrength={}, argon2Iterations={}, pbkdf2Iterations={}, "
+                + "threads={}, queue={}", algorithm, bcryptStrength, argon2Iterations, pbkdf2Iterations, threads,
+                hashingQueue);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Executor metrics are bound here rather than in the constructor so the
+     * registry binds them exactly once per executor.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, "passwordHashing", Tags.empty()).bindTo(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private <T> T execute(Timer hashTimer, Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.recordCallable(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceOverloadedException("Too many concurrent authentication requests, retry later",
+                    retryAfterSeconds);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static ThreadFactory namedThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
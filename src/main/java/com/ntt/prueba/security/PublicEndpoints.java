@@ -0,0 +1,34 @@
+package com.ntt.prueba.security;
+
+import java.util.Arrays;
+
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+/**
+ * Paths that need no authentication. {@link SecurityConfig} permits them and
+ * {@link JwtAuthenticationFilter} skips them, both through the same matcher,
+ * so a bearer header on a public or static request is never parsed. The
+ * patterns are compiled once.
+ */
+public final class PublicEndpoints {
+
+    static final String[] PATHS = {
+            "/api/v1/auth/**",
+            "/.well-known/jwks.json",
+            "/v3/api-docs/**",
+            "/h2-console/**",
+            "/swagger-ui/**",
+            "/swagger-ui.html",
+            "/swagger-resources/**",
+            "/webjars/**"
+    };
+
+    public static final RequestMatcher MATCHER = new OrRequestMatcher(Arrays.stream(PATHS)
+            .map(PathPatternRequestMatcher.withDefaults()::matcher)
+            .toArray(RequestMatcher[]::new));
+
+    private PublicEndpoints() {
+    }
+}
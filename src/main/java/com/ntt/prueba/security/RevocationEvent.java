@@ -0,0 +1,47 @@
+package com.ntt.prueba.security;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Row of the {@link JdbcInvalidationTransport} change feed. Mapped only so the
+ * table is created with the rest of the schema; it is read and written through
+ * JDBC.
+ */
+@Entity
+@Table(name = "revocation_events", indexes = {
+        @Index(name = "idx_revocation_events_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+public class RevocationEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Column(nullable = false, length = 20)
+    private String eventType;
+
+    private String subject;
+
+    @Column(length = 64)
+    private String tokenId;
+
+    private Instant expiresAt;
+
+    @Column(nullable = false, length = 36)
+    private String origin;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -1,5 +1,9 @@
 package com.ntt.prueba.security;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -9,14 +13,18 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.ntt.prueba.auth.repository.UserRepository;
+import com.ntt.prueba.auth.service.impl.CachingUserDetailsService;
+import com.ntt.prueba.auth.service.impl.UserDetailsServiceImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 
 @Configuration
@@ -35,14 +43,7 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .headers(headers -> headers.frameOptions(frame -> frame.disable()))
                 .authorizeHttpRequests(authorize -> authorize
-                        .requestMatchers(
-                                "/api/v1/auth/**",
-                                "/v3/api-docs/**",
-                                "/h2-console/**",
-                                "/swagger-ui/**",
-                                "/swagger-ui.html",
-                                "/swagger-resources/**",
-                                "/webjars/**")
+                        .requestMatchers(PublicEndpoints.MATCHER)
                         .permitAll()
                         .anyRequest().authenticated())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -52,8 +53,18 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public CachingUserDetailsService userDetailsService(UserRepository userRepository, MeterRegistry meterRegistry,
+            @Value("${app.security.user-cache.max-size:10000}") long maxSize,
+            @Value("${app.security.user-cache.ttl:300000}") long ttlMillis) {
+        UserDetailsService delegate = new UserDetailsServiceImpl(userRepository);
+        return new CachingUserDetailsService(delegate, maxSize, Duration.ofMillis(ttlMillis), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.security.token-cache.enabled", havingValue = "true")
+    public VerifiedTokenCache verifiedTokenCache(MeterRegistry meterRegistry,
+            @Value("${app.security.token-cache.max-size:10000}") long maxSize) {
+        return new VerifiedTokenCache(maxSize, meterRegistry);
     }
 
     @Bean
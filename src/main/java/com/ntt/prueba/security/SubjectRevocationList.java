@@ -0,0 +1,65 @@
+package com.ntt.prueba.security;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ntt.prueba.auth.event.UserSecurityChangedEvent;
+
+/**
+ * Lightweight deny list used when authorities are trusted from token claims.
+ * Records, per subject, the millisecond from which tokens must have been
+ * issued to be accepted; tokens carry their issue time to the millisecond in
+ * {@value ParsedToken#ISSUED_AT_MILLIS}, so a token taken just before the
+ * change is rejected even within the same second. Entries older than the access-token lifetime can no longer match
+ * a live token and are pruned on a schedule.
+ */
+@Component
+public class SubjectRevocationList {
+
+    private final Map<String, Instant> revokedAt = new ConcurrentHashMap<>();
+
+    @Value("${spring.security.jwt.expiration}")
+    private long jwtExpiration;
+
+    public void revoke(String subject) {
+        revoke(subject, Instant.now());
+    }
+
+    /**
+     * Revokes the subject's tokens issued before {@code at}. An earlier time
+     * never replaces a later one, so a redelivered or replayed change is a
+     * no-op and cannot reject tokens issued after it.
+     */
+    public void revoke(String subject, Instant at) {
+        // Token issue times are whole milliseconds; a re-login in the revocation millisecond stays valid
+        Instant revocation = at.truncatedTo(ChronoUnit.MILLIS);
+        revokedAt.merge(subject, revocation, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    public boolean isRevoked(ParsedToken token) {
+        Instant revocation = revokedAt.get(token.getSubject());
+        if (revocation == null) {
+            return false;
+        }
+        return token.getIssuedAt() == null || token.getIssuedAt().isBefore(revocation);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.prune-interval:60000}")
+    public void prune() {
+        Instant horizon = Instant.now().minusMillis(jwtExpiration);
+        revokedAt.values().removeIf(instant -> instant.isBefore(horizon));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        revoke(event.getUsername());
+    }
+}
@@ -0,0 +1,197 @@
+package com.ntt.prueba.security;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ntt.prueba.auth.event.AccessTokenRevokedEvent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Revoked access tokens, keyed by their {@code jti}. Entries live in two
+ * primitive {@code long[]} arrays (64-bit key, expiry in epoch seconds) with
+ * open addressing and linear probing, so millions of entries are two objects
+ * to the GC and a lookup is a few array reads without locking or allocation.
+ * Writers serialize on a lock and publish each slot with release semantics;
+ * readers load it with acquire semantics. Entries are dropped once the token
+ * they revoke has expired, on a schedule and whenever the table would grow.
+ */
+@Slf4j
+@Component
+public class TokenDenyList {
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final long EMPTY = 0L;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final int initialCapacity;
+    private volatile Table table;
+
+    public TokenDenyList(@Value("${app.security.revocation.initial-capacity:1024}") int initialCapacity,
+            MeterRegistry meterRegistry) {
+        this.initialCapacity = tableSizeFor(initialCapacity);
+        this.table = new Table(this.initialCapacity);
+        Gauge.builder("auth.revocation.deny_list.size", this, TokenDenyList::size)
+                .description("Revoked access tokens that have not expired yet")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reject the token with this id until it expires
+     */
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (tokenId == null || expiresAt == null) {
+            return;
+        }
+        long key = keyOf(tokenId);
+        long expiry = expiresAt.getEpochSecond() + 1;
+        writeLock.lock();
+        try {
+            Table current = table;
+            if ((current.size + 1) * 2 > current.keys.length) {
+                // Over half full: drop expired entries and grow if still needed
+                current = rebuild(current, Instant.now().getEpochSecond());
+                table = current;
+            }
+            current.put(key, expiry);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onAccessTokenRevoked(AccessTokenRevokedEvent event) {
+        revoke(event.getTokenId(), event.getExpiresAt());
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        long key = keyOf(tokenId);
+        Table current = table;
+        long[] keys = current.keys;
+        int index = spread(key) & current.mask;
+        while (true) {
+            long slot = (long) SLOTS.getAcquire(keys, index);
+            if (slot == key) {
+                return true;
+            }
+            if (slot == EMPTY) {
+                return false;
+            }
+            index = (index + 1) & current.mask;
+        }
+    }
+
+    public int size() {
+        return table.size;
+    }
+
+    /**
+     * Drop entries whose token has expired
+     *
+     * @return number of entries removed
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.prune-interval:60000}")
+    public int prune() {
+        writeLock.lock();
+        try {
+            Table current = table;
+            Table pruned = rebuild(current, Instant.now().getEpochSecond());
+            table = pruned;
+            int removed = current.size - pruned.size;
+            if (removed > 0) {
+                log.debug("Pruned {} expired entries from the token deny list", removed);
+            }
+            return removed;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Table rebuild(Table source, long nowSeconds) {
+        int live = 0;
+        for (int i = 0; i < source.keys.length; i++) {
+            if (source.keys[i] != EMPTY && source.expiries[i] > nowSeconds) {
+                live++;
+            }
+        }
+        // Keep the load factor at or below a quarter after a rebuild
+        Table target = new Table(Math.max(initialCapacity, tableSizeFor((live + 1) * 4)));
+        for (int i = 0; i < source.keys.length; i++) {
+            if (source.keys[i] != EMPTY && source.expiries[i] > nowSeconds) {
+                target.put(source.keys[i], source.expiries[i]);
+            }
+        }
+        return target;
+    }
+
+    static long keyOf(String tokenId) {
+        long key;
+        try {
+            UUID uuid = UUID.fromString(tokenId);
+            key = uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits();
+        } catch (IllegalArgumentException e) {
+            // Not issued by us; any stable 64-bit hash will do
+            key = 1125899906842597L;
+            for (int i = 0; i < tokenId.length(); i++) {
+                key = 31 * key + tokenId.charAt(i);
+            }
+        }
+        return key == EMPTY ? 1L : key;
+    }
+
+    private static int spread(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32);
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        return Math.max(size, 16);
+    }
+
+    private static final class Table {
+
+        final long[] keys;
+        final long[] expiries;
+        final int mask;
+        int size;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.expiries = new long[capacity];
+            this.mask = capacity - 1;
+        }
+
+        void put(long key, long expiry) {
+            int index = spread(key) & mask;
+            while (true) {
+                long slot = keys[index];
+                if (slot == key) {
+                    expiries[index] = Math.max(expiries[index], expiry);
+                    return;
+                }
+                if (slot == EMPTY) {
+                    // Expiry first, then the key with release semantics, so a reader that sees the key sees a
+                    // complete entry
+                    expiries[index] = expiry;
+                    SLOTS.setRelease(keys, index, key);
+                    size++;
+                    return;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+    }
+}
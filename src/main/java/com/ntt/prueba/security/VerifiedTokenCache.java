@@ -0,0 +1,81 @@
+package com.ntt.prueba.security;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded cache of access tokens whose signature has already been verified,
+ * so a client reusing a token skips signature verification and JSON decoding.
+ * Entries are keyed by a 64-bit hash of the compact token and hold the token
+ * itself: a hit only counts when the whole token matches, so a colliding or
+ * forged token can never borrow another token's claims. Only the caller
+ * inserts, and only after a successful verification. Each entry expires at its
+ * token's {@code exp}. Hit/miss counters are published as {@code cache.*}
+ * metrics under the name {@code verifiedTokens}, plus a hit-ratio gauge.
+ */
+public class VerifiedTokenCache {
+
+    private final Cache<Long, Entry> cache;
+
+    public VerifiedTokenCache(long maxSize, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.creating((Long key, Entry entry) -> Duration.between(Instant.now(),
+                        entry.parsedToken().getExpiresAt())))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "verifiedTokens");
+        Gauge.builder("auth.jwt.verified_cache.hit_ratio", cache, c -> c.stats().hitRate())
+                .description("Share of token verifications served from the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Verified claims of this exact token, or {@code null} if it has not been
+     * verified yet or has expired
+     */
+    public Entry get(String token) {
+        Entry entry = cache.getIfPresent(keyOf(token));
+        return entry != null && entry.token().equals(token) ? entry : null;
+    }
+
+    /**
+     * Remember claims that were just verified for this token. Tokens without
+     * an expiry are returned but not cached.
+     */
+    public Entry put(String token, Claims claims) {
+        Entry entry = new Entry(token, claims, ParsedToken.fromClaims(claims));
+        if (entry.parsedToken().getExpiresAt() != null) {
+            cache.put(keyOf(token), entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Forget every verification, for when a key the cached tokens may have
+     * been verified with is withdrawn
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    static long keyOf(String token) {
+        long hash = 1125899906842597L;
+        for (int i = 0; i < token.length(); i++) {
+            hash = 31 * hash + token.charAt(i);
+        }
+        return hash ^ (hash >>> 29);
+    }
+
+    public record Entry(String token, Claims claims, ParsedToken parsedToken) {
+    }
+}
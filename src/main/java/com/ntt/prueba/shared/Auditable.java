@@ -30,8 +30,9 @@ public abstract class Auditable extends BaseEntity {
     @Column(updatable = false)
     private String createdBy;
 
+    // Part of the (createdDate, id) cursor key, which has no place for NULL
     @CreatedDate
-    @Column(updatable = false)
+    @Column(nullable = false, updatable = false)
     private LocalDateTime createdDate;
 
     @LastModifiedBy
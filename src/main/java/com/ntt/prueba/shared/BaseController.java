@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import lombok.RequiredArgsConstructor;
 
 @RequiredArgsConstructor
@@ -41,8 +42,17 @@ public abstract class BaseController<CREATE_DTO, UPDATE_DTO, RESPONSE_DTO, TFilt
     @GetMapping("/paged")
     public ResponseEntity<PagedResponse<RESPONSE_DTO>> getAllPaged(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        PagedResponse<RESPONSE_DTO> response = service.getAll(page, size);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean count) {
+        PagedResponse<RESPONSE_DTO> response = service.getAll(page, size, count);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorResponse<RESPONSE_DTO>> getAllByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Max(BaseService.MAX_PAGE_SIZE) int size) {
+        CursorResponse<RESPONSE_DTO> response = service.getAllByCursor(cursor, size);
         return ResponseEntity.ok(response);
     }
 
@@ -50,8 +60,9 @@ public abstract class BaseController<CREATE_DTO, UPDATE_DTO, RESPONSE_DTO, TFilt
     public ResponseEntity<PagedResponse<RESPONSE_DTO>> getAllFilteredPagedByDto(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean count,
             @RequestBody TFilters filters) {
-        PagedResponse<RESPONSE_DTO> response = service.getAll(page, size, filters);
+        PagedResponse<RESPONSE_DTO> response = service.getAll(page, size, filters, count);
         return ResponseEntity.ok(response);
     }
 
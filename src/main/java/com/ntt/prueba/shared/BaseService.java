@@ -5,6 +5,9 @@ import java.util.Optional;
 
 public interface BaseService<CREATE_DTO, UPDATE_DTO, RESPONSE_DTO, TFilters> {
 
+    /** Largest page a single request may ask for; larger sizes are clamped */
+    int MAX_PAGE_SIZE = 100;
+
     RESPONSE_DTO create(CREATE_DTO request);
 
     RESPONSE_DTO update(String id, UPDATE_DTO request);
@@ -23,4 +26,26 @@ public interface BaseService<CREATE_DTO, UPDATE_DTO, RESPONSE_DTO, TFilters> {
 
     PagedResponse<RESPONSE_DTO> getAll(int page, int size, TFilters filters);
 
+    /**
+     * With {@code count} false no count query runs: the page is read as a
+     * slice of {@code size + 1} rows and {@code totalElements} and
+     * {@code totalPages} are -1.
+     */
+    PagedResponse<RESPONSE_DTO> getAll(int page, int size, boolean count);
+
+    PagedResponse<RESPONSE_DTO> getAll(int page, int size, TFilters filters, boolean count);
+
+    /**
+     * Ranked full-text search, for {@link Searchable} entities. Other
+     * entities answer 404. {@code size} is clamped to {@link #MAX_PAGE_SIZE}.
+     */
+    PagedResponse<RESPONSE_DTO> search(String query, int page, int size);
+
+    /**
+     * Keyset page of {@code size} rows after {@code cursor}, or from the start
+     * when it is {@code null}. Cost does not grow with depth and no count is run.
+     * {@code size} is clamped to {@link #MAX_PAGE_SIZE}.
+     */
+    CursorResponse<RESPONSE_DTO> getAllByCursor(String cursor, int size);
+
 }
@@ -1,12 +1,21 @@
 package com.ntt.prueba.shared;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.GenericTypeResolver;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,12 +29,31 @@ public abstract class BaseServiceImpl<ENTITY extends BaseEntity, CREATE_DTO, UPD
     protected final BaseJpaRepository<ENTITY> repository;
     protected final BaseMapper<ENTITY, RESPONSE_DTO, CREATE_DTO, UPDATE_DTO> mapper;
     private final GenericSpecificationBuilder<ENTITY> specificationBuilder;
+    private final Class<?> entityType;
+    // Audited entities are paged by (createdDate, id), others by id alone
+    private final boolean keyedByCreatedDate;
+    // Present when app.pagination.count-cache.enabled is set
+    private PageCountCache pageCountCache;
+    private SearchIndexRegistry searchIndexRegistry;
 
     public BaseServiceImpl(BaseJpaRepository<ENTITY> repository,
             BaseMapper<ENTITY, RESPONSE_DTO, CREATE_DTO, UPDATE_DTO> mapper) {
         this.repository = repository;
         this.mapper = mapper;
         this.specificationBuilder = new GenericSpecificationBuilder<>();
+        Class<?>[] typeArguments = GenericTypeResolver.resolveTypeArguments(getClass(), BaseServiceImpl.class);
+        this.entityType = typeArguments != null ? typeArguments[0] : BaseEntity.class;
+        this.keyedByCreatedDate = Auditable.class.isAssignableFrom(entityType);
+    }
+
+    @Autowired(required = false)
+    public void setPageCountCache(PageCountCache pageCountCache) {
+        this.pageCountCache = pageCountCache;
+    }
+
+    @Autowired(required = false)
+    public void setSearchIndexRegistry(SearchIndexRegistry searchIndexRegistry) {
+        this.searchIndexRegistry = searchIndexRegistry;
     }
 
     @Override
@@ -83,33 +111,116 @@ public abstract class BaseServiceImpl<ENTITY extends BaseEntity, CREATE_DTO, UPD
     @Override
     @Transactional(readOnly = true)
     public PagedResponse<RESPONSE_DTO> getAll(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<ENTITY> entityPage = repository.findAll(pageable);
-        List<RESPONSE_DTO> content = mapper.toDTOList(entityPage.getContent());
-        return new PagedResponse<>(
-                content,
-                entityPage.getNumber(),
-                entityPage.getSize(),
-                entityPage.getTotalElements(),
-                entityPage.getTotalPages(),
-                entityPage.isLast());
+        return getAll(page, size, true);
     }
 
     @Override
     @Transactional(readOnly = true)
     public PagedResponse<RESPONSE_DTO> getAll(int page, int size, TFilters filters) {
-        Pageable pageable = PageRequest.of(page, size);
-        Specification<ENTITY> spec = specificationBuilder.build(filters);
-        Page<ENTITY> entityPage = repository.findAll(spec, pageable);
-        List<RESPONSE_DTO> domainList = mapper.toDTOList(entityPage.getContent());
+        return getAll(page, size, filters, true);
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PagedResponse<RESPONSE_DTO> getAll(int page, int size, boolean count) {
+        return findPage((root, query, cb) -> null, null, PageRequest.of(page, size), count);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PagedResponse<RESPONSE_DTO> getAll(int page, int size, TFilters filters, boolean count) {
+        return findPage(specificationBuilder.build(filters), filters, PageRequest.of(page, size), count);
+    }
+
+    private PagedResponse<RESPONSE_DTO> findPage(Specification<ENTITY> spec, TFilters filters, Pageable pageable,
+            boolean count) {
+        if (count && pageCountCache == null) {
+            Page<ENTITY> entityPage = repository.findAll(spec, pageable);
+            return new PagedResponse<>(
+                    mapper.toDTOList(entityPage.getContent()),
+                    entityPage.getNumber(),
+                    entityPage.getSize(),
+                    entityPage.getTotalElements(),
+                    entityPage.getTotalPages(),
+                    entityPage.isLast());
+        }
+        // Reads size + 1 rows to learn whether there is a next page, without a count query
+        Slice<ENTITY> slice = repository.findBy(spec, query -> query.slice(pageable));
+        long totalElements = -1;
+        int totalPages = -1;
+        if (count) {
+            totalElements = pageCountCache.get(entityType, filters, () -> repository.count(spec));
+            totalPages = (int) ((totalElements + pageable.getPageSize() - 1) / pageable.getPageSize());
+        }
         return new PagedResponse<>(
-                domainList,
-                entityPage.getNumber(),
-                entityPage.getSize(),
-                entityPage.getTotalElements(),
-                entityPage.getTotalPages(),
-                entityPage.isLast());
+                mapper.toDTOList(slice.getContent()),
+                slice.getNumber(),
+                slice.getSize(),
+                totalElements,
+                totalPages,
+                !slice.hasNext());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PagedResponse<RESPONSE_DTO> search(String query, int page, int size) {
+        if (searchIndexRegistry == null || !Searchable.class.isAssignableFrom(entityType)) {
+            throw new BaseException("Search is not available for this resource", HttpStatus.NOT_FOUND);
+        }
+        if (page < 0 || size < 1) {
+            throw new BaseException("Invalid page or page size", HttpStatus.BAD_REQUEST);
+        }
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        // A page past the last one is simply empty, however large page * size gets
+        int offset = (int) Math.min((long) page * pageSize, Integer.MAX_VALUE);
+        SearchIndex.Hits hits = searchIndexRegistry.get(entityType).search(query, offset, pageSize);
+        Map<UUID, ENTITY> found = repository.findAllById(hits.ids()).stream()
+                .collect(Collectors.toMap(BaseEntity::getId, Function.identity()));
+        // Keep the index ranking; rows deleted since they were indexed drop out
+        List<ENTITY> ranked = hits.ids().stream().map(found::get).filter(Objects::nonNull).toList();
+        int totalPages = (hits.total() + pageSize - 1) / pageSize;
+        return new PagedResponse<>(mapper.toDTOList(ranked), page, pageSize, hits.total(), totalPages,
+                page >= totalPages - 1);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorResponse<RESPONSE_DTO> getAllByCursor(String cursor, int size) {
+        if (size < 1) {
+            throw new BaseException("Page size must be positive", HttpStatus.BAD_REQUEST);
+        }
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        Specification<ENTITY> spec = cursor == null || cursor.isBlank()
+                ? (root, query, cb) -> null
+                : after(PageCursor.decode(cursor));
+        Sort sort = keyedByCreatedDate ? Sort.by("createdDate", "id") : Sort.by("id");
+        // One extra row tells whether there is a next page without a count query
+        List<ENTITY> rows = repository.findBy(spec, query -> query.sortBy(sort).limit(pageSize + 1).all());
+        boolean last = rows.size() <= pageSize;
+        List<ENTITY> page = last ? rows : rows.subList(0, pageSize);
+        String nextCursor = last ? null : cursorOf(page.get(page.size() - 1)).encode();
+        return new CursorResponse<>(mapper.toDTOList(page), pageSize, nextCursor, last);
     }
 
+    private Specification<ENTITY> after(PageCursor cursor) {
+        return (root, query, cb) -> {
+            if (!keyedByCreatedDate) {
+                return cb.greaterThan(root.get("id"), cursor.id());
+            }
+            if (cursor.createdDate() == null) {
+                throw new BaseException("Invalid cursor", HttpStatus.BAD_REQUEST);
+            }
+            // The first term bounds the index range scan on (created_date, id); the second only breaks ties
+            return cb.and(
+                    cb.greaterThanOrEqualTo(root.<LocalDateTime>get("createdDate"), cursor.createdDate()),
+                    cb.or(
+                            cb.greaterThan(root.<LocalDateTime>get("createdDate"), cursor.createdDate()),
+                            cb.greaterThan(root.<UUID>get("id"), cursor.id())));
+        };
+    }
+
+    private PageCursor cursorOf(ENTITY entity) {
+        LocalDateTime createdDate = keyedByCreatedDate ? ((Auditable) entity).getCreatedDate() : null;
+        return new PageCursor(createdDate, entity.getId());
+    }
 }
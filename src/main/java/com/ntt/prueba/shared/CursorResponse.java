@@ -0,0 +1,18 @@
+package com.ntt.prueba.shared;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorResponse<T> {
+    private List<T> content;
+    private int pageSize;
+    // Pass back as "cursor" to get the next page; null on the last page
+    private String nextCursor;
+    private boolean last;
+}
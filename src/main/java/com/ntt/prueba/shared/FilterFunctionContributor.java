@@ -0,0 +1,28 @@
+package com.ntt.prueba.shared;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the SQL behind {@link FilterOperation#FULL_TEXT}. PostgreSQL gets
+ * a {@code tsvector} match that the {@code to_tsvector('simple', ...)} GIN
+ * indexes in the schema serve; other databases get a case-insensitive
+ * substring match so the filter still works, without an index. The function
+ * is applied once per word, already escaped for {@code LIKE}.
+ */
+public class FilterFunctionContributor implements FunctionContributor {
+
+    static final String FULL_TEXT_MATCH = "filter_full_text";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        String pattern = functionContributions.getDialect() instanceof PostgreSQLDialect
+                ? "(to_tsvector('simple', ?1) @@ plainto_tsquery('simple', ?2))"
+                : "(lower(?1) like ('%' || lower(?2) || '%') escape '\\')";
+        functionContributions.getFunctionRegistry().registerPattern(FULL_TEXT_MATCH, pattern,
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.BOOLEAN));
+    }
+}
@@ -0,0 +1,137 @@
+package com.ntt.prueba.shared;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Predicate a filter field turns into. Only {@link #CONTAINS} cannot use a
+ * B-tree index; the others are sargable given the matching index (a
+ * {@code column text_pattern_ops} index for {@link #PREFIX}, a
+ * {@code LOWER(column)} one for {@link #PREFIX_IGNORE_CASE}, a full-text
+ * index for {@link #FULL_TEXT} on PostgreSQL). {@code %}, {@code _} and
+ * {@code \} in the value are matched literally by every {@code LIKE}, including
+ * the non-PostgreSQL {@link #FULL_TEXT} fallback.
+ */
+public enum FilterOperation {
+
+    /** {@code column = value} */
+    EQUAL {
+        @Override
+        Predicate create(CriteriaBuilder criteriaBuilder, Path<?> path, Object argument) {
+            return criteriaBuilder.equal(path, argument);
+        }
+    },
+    /** {@code column LIKE '%value%'}, the default for strings */
+    CONTAINS {
+        @Override
+        Object argument(Object value) {
+            return "%" + escapeLike(value.toString()) + "%";
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Predicate create(CriteriaBuilder criteriaBuilder, Path<?> path, Object argument) {
+            return criteriaBuilder.like((Path<String>) path, (String) argument, ESCAPE);
+        }
+    },
+    /** {@code column LIKE 'value%'}, indexable with a {@code text_pattern_ops} index on the column */
+    PREFIX {
+        @Override
+        Object argument(Object value) {
+            return escapeLike(value.toString()) + "%";
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Predicate create(CriteriaBuilder criteriaBuilder, Path<?> path, Object argument) {
+            return criteriaBuilder.like((Path<String>) path, (String) argument, ESCAPE);
+        }
+    },
+    /** {@code LOWER(column) LIKE 'value%'} */
+    PREFIX_IGNORE_CASE {
+        @Override
+        Object argument(Object value) {
+            return escapeLike(value.toString().toLowerCase(Locale.ROOT)) + "%";
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Predicate create(CriteriaBuilder criteriaBuilder, Path<?> path, Object argument) {
+            return criteriaBuilder.like(criteriaBuilder.lower((Path<String>) path), (String) argument, ESCAPE);
+        }
+    },
+    /** {@code column >= value}, the lower end of a range */
+    GREATER_OR_EQUAL {
+        @Override
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        Predicate create(CriteriaBuilder criteriaBuilder, Path<?> path, Object argument) {
+            return criteriaBuilder.greaterThanOrEqualTo((Path<Comparable>) path, (Comparable) argument);
+        }
+    },
+    /** {@code column <= value}, the upper end of a range */
+    LESS_OR_EQUAL {
+        @Override
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        Predicate create(CriteriaBuilder criteriaBuilder, Path<?> path, Object argument) {
+            return criteriaBuilder.lessThanOrEqualTo((Path<Comparable>) path, (Comparable) argument);
+        }
+    },
+    /** {@code column IN (values)}, for collection fields */
+    IN {
+        @Override
+        Predicate create(CriteriaBuilder criteriaBuilder, Path<?> path, Object argument) {
+            return path.in((Collection<?>) argument);
+        }
+    },
+    /**
+     * Every word of the value appears in the column. Each word is matched on
+     * its own: on PostgreSQL as a {@code tsvector} match, elsewhere as a
+     * case-insensitive {@code LIKE '%word%'}. See
+     * {@link FilterFunctionContributor}.
+     */
+    FULL_TEXT {
+        @Override
+        Object argument(Object value) {
+            // Escaped for the LIKE fallback; the PostgreSQL parser drops the backslashes with the other punctuation
+            return Arrays.stream(WHITESPACE.split(value.toString().strip()))
+                    .filter(word -> !word.isEmpty())
+                    .map(FilterOperation::escapeLike)
+                    .toArray(String[]::new);
+        }
+
+        @Override
+        Predicate create(CriteriaBuilder criteriaBuilder, Path<?> path, Object argument) {
+            String[] words = (String[]) argument;
+            Predicate[] predicates = new Predicate[words.length];
+            for (int i = 0; i < words.length; i++) {
+                // value() binds the word as a parameter, where literal() would inline it into the SQL
+                predicates[i] = criteriaBuilder.isTrue(criteriaBuilder.function(
+                        FilterFunctionContributor.FULL_TEXT_MATCH, Boolean.class, path,
+                        ((HibernateCriteriaBuilder) criteriaBuilder).value(words[i])));
+            }
+            return criteriaBuilder.and(predicates);
+        }
+    };
+
+    private static final char ESCAPE = '\\';
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /** Value bound into the query, computed once per request */
+    Object argument(Object value) {
+        return value;
+    }
+
+    abstract Predicate create(CriteriaBuilder criteriaBuilder, Path<?> path, Object argument);
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
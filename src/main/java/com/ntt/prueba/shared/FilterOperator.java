@@ -0,0 +1,21 @@
+package com.ntt.prueba.shared;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * How a filter DTO field is matched by {@link GenericSpecificationBuilder}.
+ * Fields without it keep the defaults: {@code LIKE %value%} for strings and
+ * equality for anything else.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface FilterOperator {
+
+    FilterOperation value();
+
+    /** Entity attribute to filter on, when it differs from the field name (e.g. both ends of a range) */
+    String field() default "";
+}
@@ -1,38 +1,105 @@
 package com.ntt.prueba.shared;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 import org.springframework.data.jpa.domain.Specification;
 
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Builds a specification from the non-empty fields of a filter DTO. Each
+ * field is matched as its {@link FilterOperator} says; without one, strings
+ * match with {@code LIKE %value%} and anything else with equality. The fields
+ * of each filter class, their getters and their operation are resolved once
+ * and kept in a {@link ClassValue}, so a request only reads the values and
+ * builds one specification for all of them.
+ */
 public class GenericSpecificationBuilder<T> {
 
-    public Specification<T> build(Object filterDto) {
-        Specification<T> spec = Specification.unrestricted();
+    private static final ClassValue<FilterField[]> FILTER_FIELDS = new ClassValue<>() {
+        @Override
+        protected FilterField[] computeValue(Class<?> type) {
+            return FilterField.of(type);
+        }
+    };
 
+    public Specification<T> build(Object filterDto) {
         if (filterDto == null) {
-            return spec;
+            return Specification.unrestricted();
+        }
+
+        FilterField[] fields = FILTER_FIELDS.get(filterDto.getClass());
+        FilterField[] matched = new FilterField[fields.length];
+        Object[] arguments = new Object[fields.length];
+        int count = 0;
+        for (FilterField field : fields) {
+            Object value = field.read(filterDto);
+            if (isPresent(value)) {
+                matched[count] = field;
+                arguments[count++] = field.operation().argument(value);
+            }
+        }
+        if (count == 0) {
+            return Specification.unrestricted();
+        }
+
+        int size = count;
+        return (root, query, criteriaBuilder) -> {
+            Predicate[] predicates = new Predicate[size];
+            for (int i = 0; i < size; i++) {
+                predicates[i] = matched[i].operation().create(criteriaBuilder, root.get(matched[i].attribute()),
+                        arguments[i]);
+            }
+            return size == 1 ? predicates[0] : criteriaBuilder.and(predicates);
+        };
+    }
+
+    private static boolean isPresent(Object value) {
+        if (value instanceof Collection<?> collection) {
+            return !collection.isEmpty();
         }
+        return value != null && !value.toString().isEmpty();
+    }
+
+    private record FilterField(String attribute, MethodHandle getter, FilterOperation operation) {
 
-        for (Field field : filterDto.getClass().getDeclaredFields()) {
-            field.setAccessible(true); // Allow access to private fields
+        private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+        static FilterField[] of(Class<?> type) {
+            List<FilterField> fields = new ArrayList<>();
             try {
-                Object value = field.get(filterDto);
-                if (value != null && !value.toString().isEmpty()) {
-                    String fieldName = field.getName();
-
-                    if (field.getType() == String.class) {
-                        spec = spec.and((root, query, criteriaBuilder) -> criteriaBuilder.like(root.get(fieldName),
-                                "%" + value.toString() + "%"));
-                    } else {
-                        spec = spec.and(
-                                (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get(fieldName), value));
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+                for (Field field : type.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                        continue;
                     }
+                    FilterOperator operator = field.getAnnotation(FilterOperator.class);
+                    String attribute = operator != null && !operator.field().isEmpty() ? operator.field()
+                            : field.getName();
+                    FilterOperation operation = operator != null ? operator.value()
+                            : field.getType() == String.class ? FilterOperation.CONTAINS : FilterOperation.EQUAL;
+                    fields.add(new FilterField(attribute, lookup.unreflectGetter(field).asType(GETTER_TYPE),
+                            operation));
                 }
             } catch (IllegalAccessException e) {
-                // Log the error or handle it appropriately
-                e.printStackTrace();
+                throw new IllegalStateException("Cannot read filter fields of " + type.getName(), e);
+            }
+            return fields.toArray(FilterField[]::new);
+        }
+
+        Object read(Object filterDto) {
+            try {
+                return (Object) getter.invokeExact(filterDto);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot read filter field for " + attribute, e);
             }
         }
-        return spec;
     }
 }
@@ -0,0 +1,47 @@
+package com.ntt.prueba.shared;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Short-lived totals for paged listings, keyed by entity type and filter
+ * values, so clients paging through the same listing pay for one
+ * {@code COUNT(*)} per TTL instead of one per page. Totals may lag writes by
+ * up to the TTL. Filter DTOs need value equality to share an entry. Hit/miss
+ * counters are published as {@code cache.*} metrics under the name
+ * {@code pageCounts}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.pagination.count-cache.enabled", havingValue = "true")
+public class PageCountCache {
+
+    private final Cache<CountKey, Long> cache;
+
+    public PageCountCache(@Value("${app.pagination.count-cache.max-size:1000}") long maxSize,
+            @Value("${app.pagination.count-cache.ttl:30s}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "pageCounts");
+    }
+
+    public long get(Class<?> entityType, Object filters, LongSupplier count) {
+        return cache.get(new CountKey(entityType, filters), key -> count.getAsLong());
+    }
+
+    private record CountKey(Class<?> entityType, Object filters) {
+    }
+}
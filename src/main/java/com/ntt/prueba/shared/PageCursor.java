@@ -0,0 +1,42 @@
+package com.ntt.prueba.shared;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+
+import com.ntt.prueba.exception.exception.BaseException;
+
+/**
+ * Position in a keyset-paginated listing: the sort key and id of the last row
+ * returned. Clients get it base64url-encoded and send it back unchanged.
+ * {@code createdDate} is {@code null} for entities without audit columns,
+ * which are paged by id alone.
+ */
+public record PageCursor(LocalDateTime createdDate, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = (createdDate != null ? createdDate.toString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Missing separator");
+            }
+            String createdDate = raw.substring(0, separator);
+            return new PageCursor(createdDate.isEmpty() ? null : LocalDateTime.parse(createdDate),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BaseException("Invalid cursor", HttpStatus.BAD_REQUEST);
+        }
+    }
+}
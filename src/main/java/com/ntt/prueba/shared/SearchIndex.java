@@ -0,0 +1,185 @@
+package com.ntt.prueba.shared;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpStatus;
+
+import com.ntt.prueba.exception.exception.BaseException;
+
+/**
+ * Trigram inverted index over the search text of one entity type. Text is
+ * folded to lower case without accents and split into words; each word is
+ * posted under every 3-character gram it contains. A query word of three or
+ * more characters narrows the candidates to the intersection of its grams'
+ * postings, and every candidate is then checked word by word, so results are
+ * exact substring matches, not approximations.
+ * <p>
+ * Results are ranked by how each query word matches a word of the document
+ * (whole word, then prefix, then substring), then by shorter documents.
+ */
+public class SearchIndex {
+
+    static final int GRAM = 3;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Set<UUID>> postings = new HashMap<>();
+    private final Map<UUID, String[]> documents = new HashMap<>();
+
+    public void put(UUID id, String text) {
+        String[] words = words(text);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            documents.put(id, words);
+            for (String word : words) {
+                for (int i = 0; i + GRAM <= word.length(); i++) {
+                    postings.computeIfAbsent(word.substring(i, i + GRAM), gram -> new HashSet<>()).add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the matching documents from {@code offset}, best first, with the
+     * total number of matches
+     */
+    public Hits search(String query, int offset, int limit) {
+        String[] terms = words(query);
+        if (Arrays.stream(terms).noneMatch(term -> term.length() >= GRAM)) {
+            throw new BaseException("Search needs a word of at least " + GRAM + " characters", HttpStatus.BAD_REQUEST);
+        }
+        lock.readLock().lock();
+        try {
+            List<Set<UUID>> lists = new ArrayList<>();
+            for (String term : terms) {
+                for (int i = 0; i + GRAM <= term.length(); i++) {
+                    Set<UUID> posting = postings.get(term.substring(i, i + GRAM));
+                    if (posting == null) {
+                        return new Hits(List.of(), 0);
+                    }
+                    lists.add(posting);
+                }
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+            List<Scored> matches = new ArrayList<>();
+            candidates: for (UUID id : lists.get(0)) {
+                for (int i = 1; i < lists.size(); i++) {
+                    if (!lists.get(i).contains(id)) {
+                        continue candidates;
+                    }
+                }
+                String[] words = documents.get(id);
+                int score = score(words, terms);
+                if (score > 0) {
+                    matches.add(new Scored(id, score, length(words)));
+                }
+            }
+            matches.sort(Comparator.comparingInt(Scored::score).reversed()
+                    .thenComparingInt(Scored::length)
+                    .thenComparing(Scored::id));
+            List<UUID> ids = matches.stream().skip(offset).limit(limit).map(Scored::id).toList();
+            return new Hits(ids, matches.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String[] words(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(folded)).filter(word -> !word.isEmpty()).toArray(String[]::new);
+    }
+
+    /** Sum over the query words of their best match, or 0 if one of them does not match */
+    private static int score(String[] words, String[] terms) {
+        int total = 0;
+        for (String term : terms) {
+            int best = 0;
+            for (String word : words) {
+                if (word.equals(term)) {
+                    best = 3;
+                    break;
+                }
+                if (word.startsWith(term)) {
+                    best = Math.max(best, 2);
+                } else if (best == 0 && word.contains(term)) {
+                    best = 1;
+                }
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private static int length(String[] words) {
+        int length = 0;
+        for (String word : words) {
+            length += word.length();
+        }
+        return length;
+    }
+
+    private void removeLocked(UUID id) {
+        String[] words = documents.remove(id);
+        if (words == null) {
+            return;
+        }
+        for (String word : words) {
+            for (int i = 0; i + GRAM <= word.length(); i++) {
+                String gram = word.substring(i, i + GRAM);
+                Set<UUID> posting = postings.get(gram);
+                if (posting != null && posting.remove(id) && posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    public record Hits(List<UUID> ids, int total) {
+    }
+
+    private record Scored(UUID id, int score, int length) {
+    }
+}
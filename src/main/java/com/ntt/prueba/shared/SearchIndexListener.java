@@ -0,0 +1,49 @@
+package com.ntt.prueba.shared;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Entity listener keeping {@link SearchIndexRegistry} in step with writes to
+ * {@link Searchable} entities. Changes are applied after the transaction
+ * commits, so a rollback never reaches the index. Bulk JPQL updates and
+ * deletes bypass listeners; the periodic rebuild picks those up.
+ */
+@Component
+public class SearchIndexListener {
+
+    private final SearchIndexRegistry registry;
+
+    public SearchIndexListener(SearchIndexRegistry registry) {
+        this.registry = registry;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Searchable entity) {
+        afterCommit(() -> registry.index(entity));
+    }
+
+    @PostRemove
+    public void onRemove(Searchable entity) {
+        afterCommit(() -> registry.remove(entity));
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
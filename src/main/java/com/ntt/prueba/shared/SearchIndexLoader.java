@@ -0,0 +1,76 @@
+package com.ntt.prueba.shared;
+
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Builds the search indexes from the database at startup, then again every
+ * {@code app.search.rebuild-interval}. The periodic rebuild picks up writes
+ * the entity listener cannot see: bulk JPQL statements and writes made by
+ * other nodes.
+ */
+@Slf4j
+@Component
+public class SearchIndexLoader {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final SearchIndexRegistry registry;
+    private final TransactionTemplate transactionTemplate;
+
+    public SearchIndexLoader(SearchIndexRegistry registry, PlatformTransactionManager transactionManager) {
+        this.registry = registry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.search.rebuild-interval:600000}",
+            initialDelayString = "${app.search.rebuild-interval:600000}")
+    public void rebuildAll() {
+        for (EntityType<?> entityType : entityManager.getMetamodel().getEntities()) {
+            if (Searchable.class.isAssignableFrom(entityType.getJavaType())) {
+                rebuild(entityType);
+            }
+        }
+    }
+
+    private void rebuild(EntityType<?> entityType) {
+        Class<?> type = entityType.getJavaType();
+        long start = System.nanoTime();
+        SearchIndex index = new SearchIndex();
+        registry.beginRebuild(type);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<?> rows = entityManager
+                        .createQuery("SELECT e FROM " + entityType.getName() + " e WHERE e.isDeleted = false", type)
+                        .getResultStream()) {
+                    rows.forEach(row -> {
+                        Searchable entity = (Searchable) row;
+                        index.put(entity.getId(), entity.searchText());
+                        entityManager.detach(row);
+                    });
+                }
+            });
+            registry.finishRebuild(type, index);
+        } catch (RuntimeException e) {
+            registry.abortRebuild(type);
+            log.warn("Failed to rebuild the {} search index, keeping the current one", entityType.getName(), e);
+            return;
+        }
+        log.debug("Rebuilt the {} search index with {} documents in {} ms", entityType.getName(), index.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+}
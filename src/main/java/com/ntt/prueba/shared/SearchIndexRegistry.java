@@ -0,0 +1,108 @@
+package com.ntt.prueba.shared;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * One {@link SearchIndex} per {@link Searchable} entity type. Changes arrive
+ * from {@link SearchIndexListener}; full rebuilds from {@link SearchIndexLoader}
+ * are swapped in atomically, replaying the changes made while they ran so
+ * none is lost. Changes share the read side of a lock and rebuilds take the
+ * write side, so no change can slip between replaying the pending ones and
+ * the swap. The size of each index is published as the
+ * {@code search.index.documents} gauge.
+ */
+@Component
+public class SearchIndexRegistry {
+
+    private final Map<Class<?>, SearchIndex> indexes = new ConcurrentHashMap<>();
+    // Changes seen while a type is being rebuilt, replayed onto the new index before the swap
+    private final Map<Class<?>, Queue<Consumer<SearchIndex>>> pending = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private final MeterRegistry meterRegistry;
+
+    public SearchIndexRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public SearchIndex get(Class<?> type) {
+        return indexes.computeIfAbsent(type, key -> {
+            Gauge.builder("search.index.documents", indexes, all -> all.get(key).size())
+                    .tag("entity", key.getSimpleName())
+                    .description("Documents in the in-memory search index")
+                    .register(meterRegistry);
+            return new SearchIndex();
+        });
+    }
+
+    public void index(Searchable entity) {
+        UUID id = entity.getId();
+        if (Boolean.TRUE.equals(entity.getIsDeleted())) {
+            apply(Hibernate.getClass(entity), index -> index.remove(id));
+        } else {
+            String text = entity.searchText();
+            apply(Hibernate.getClass(entity), index -> index.put(id, text));
+        }
+    }
+
+    public void remove(Searchable entity) {
+        UUID id = entity.getId();
+        apply(Hibernate.getClass(entity), index -> index.remove(id));
+    }
+
+    void beginRebuild(Class<?> type) {
+        rebuildLock.writeLock().lock();
+        try {
+            pending.put(type, new ConcurrentLinkedQueue<>());
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    void finishRebuild(Class<?> type, SearchIndex rebuilt) {
+        rebuildLock.writeLock().lock();
+        try {
+            Queue<Consumer<SearchIndex>> changes = pending.remove(type);
+            if (changes != null) {
+                changes.forEach(change -> change.accept(rebuilt));
+            }
+            get(type); // registers the gauge on the first build
+            indexes.put(type, rebuilt);
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    void abortRebuild(Class<?> type) {
+        rebuildLock.writeLock().lock();
+        try {
+            pending.remove(type);
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Class<?> type, Consumer<SearchIndex> change) {
+        rebuildLock.readLock().lock();
+        try {
+            change.accept(get(type));
+            Queue<Consumer<SearchIndex>> changes = pending.get(type);
+            if (changes != null) {
+                changes.add(change);
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ntt.prueba.shared;
+
+import java.util.UUID;
+
+/**
+ * Entities implementing this are kept in the in-memory {@link SearchIndex}
+ * and can be queried through {@code GET .../search} on their controller.
+ */
+public interface Searchable {
+
+    UUID getId();
+
+    Boolean getIsDeleted();
+
+    /** Text the entity is found by */
+    String searchText();
+}
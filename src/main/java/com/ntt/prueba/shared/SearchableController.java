@@ -0,0 +1,28 @@
+package com.ntt.prueba.shared;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import jakarta.validation.constraints.Max;
+
+/**
+ * {@link BaseController} that also exposes {@code GET /search}, for resources
+ * whose entity is {@link Searchable}.
+ */
+public abstract class SearchableController<CREATE_DTO, UPDATE_DTO, RESPONSE_DTO, TFilters>
+        extends BaseController<CREATE_DTO, UPDATE_DTO, RESPONSE_DTO, TFilters> {
+
+    protected SearchableController(BaseService<CREATE_DTO, UPDATE_DTO, RESPONSE_DTO, TFilters> service) {
+        super(service);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<PagedResponse<RESPONSE_DTO>> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") @Max(BaseService.MAX_PAGE_SIZE) int size) {
+        PagedResponse<RESPONSE_DTO> response = service.search(q, page, size);
+        return ResponseEntity.ok(response);
+    }
+}
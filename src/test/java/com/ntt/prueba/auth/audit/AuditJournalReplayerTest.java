@@ -0,0 +1,102 @@
+package com.ntt.prueba.auth.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.util.unit.DataSize;
+
+import com.ntt.prueba.auth.entity.AuthEventType;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("AuditJournalReplayer Tests")
+class AuditJournalReplayerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private AuditJournal journal;
+    private SimpleMeterRegistry meterRegistry;
+    private AuditJournalReplayer replayer;
+    private List<UUID> written;
+    private AuditEvent poison;
+
+    @BeforeEach
+    void setUp() {
+        journal = new AuditJournal(tempDir.resolve("journal.bin").toString(), DataSize.ofKilobytes(64));
+        meterRegistry = new SimpleMeterRegistry();
+        written = new ArrayList<>();
+        poison = event();
+        AuthenticationAuditWriter auditWriter = mock(AuthenticationAuditWriter.class);
+        doAnswer(invocation -> {
+            write(invocation.getArgument(0));
+            return null;
+        }).when(auditWriter).insert(anyList());
+        doAnswer(invocation -> {
+            write(List.of(invocation.<AuditEvent>getArgument(0)));
+            return null;
+        }).when(auditWriter).insertOne(any(AuditEvent.class));
+        replayer = new AuditJournalReplayer(journal, auditWriter, meterRegistry, 10, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Should write the rows before a poison event and discard it after the last attempt")
+    void testReplay_QuarantinesPoisonEvent() {
+        // Arrange
+        AuditEvent before = event();
+        AuditEvent after = event();
+        journal.append(before);
+        journal.append(poison);
+        journal.append(after);
+
+        // Act
+        int firstRun = replayer.replay();
+        int secondRun = replayer.replay();
+        int thirdRun = replayer.replay();
+
+        // Assert
+        assertEquals(1, firstRun);
+        assertEquals(0, secondRun);
+        assertEquals(1, thirdRun);
+        assertEquals(List.of(before.getUserId(), after.getUserId()), written);
+        assertEquals(0, journal.getPendingRecords());
+        assertEquals(1.0, meterRegistry.get("auth.audit.journal.quarantined").counter().count());
+    }
+
+    // Stands in for the transactional insert: a batch with the poison event writes nothing
+    private void write(List<AuditEvent> events) {
+        if (events.stream().anyMatch(event -> event.getUserId().equals(poison.getUserId()))) {
+            throw new DataIntegrityViolationException("FK violation");
+        }
+        events.forEach(event -> written.add(event.getUserId()));
+    }
+
+    private static AuditEvent event() {
+        return AuditEvent.builder()
+                .userId(UUID.randomUUID())
+                .eventType(AuthEventType.LOGIN)
+                .eventTime(LocalDateTime.now())
+                .successful(true)
+                .build();
+    }
+}
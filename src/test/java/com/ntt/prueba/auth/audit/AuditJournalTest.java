@@ -0,0 +1,176 @@
+package com.ntt.prueba.auth.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.ntt.prueba.auth.entity.AuthEventType;
+
+@DisplayName("AuditJournal Tests")
+class AuditJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should read back appended events with the token hashed")
+    void testAppendAndRead() {
+        // Arrange
+        AuditJournal journal = open();
+        AuditEvent event = event();
+
+        // Act
+        journal.append(event);
+        AuditJournal.Batch batch = journal.readBatch(10);
+
+        // Assert
+        assertEquals(1, batch.events().size());
+        AuditEvent read = batch.events().get(0);
+        assertEquals(event.getId(), read.getId());
+        assertEquals(event.getUserId(), read.getUserId());
+        assertEquals(event.getEventTime(), read.getEventTime());
+        assertEquals(AuditEvent.hashToken("jwt-token"), read.resolveAccessTokenHash());
+        assertNull(read.getAccessToken());
+        assertNull(read.getRefreshTokenId());
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Should replay pending events after reopening and skip committed ones")
+    void testReopen_RecoversPending() {
+        // Arrange
+        AuditJournal journal = open();
+        journal.append(event());
+        journal.append(event());
+        journal.append(event());
+        journal.commit(journal.readBatch(1));
+        journal.close();
+
+        // Act
+        AuditJournal reopened = open();
+
+        // Assert
+        assertEquals(2, reopened.getPendingRecords());
+        assertEquals(2, reopened.readBatch(10).events().size());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Should ignore a torn record left by a crash")
+    void testReopen_IgnoresTornRecord() throws Exception {
+        // Arrange
+        AuditJournal journal = open();
+        journal.append(event());
+        journal.append(event());
+        int firstRecordEnd = AuditJournal.HEADER_SIZE + journal.getUsedBytes() / 2;
+        journal.close();
+        try (RandomAccessFile file = new RandomAccessFile(tempDir.resolve("journal.bin").toFile(), "rw")) {
+            // Corrupt the payload of the second record without touching its length
+            file.seek(firstRecordEnd + 12);
+            file.writeLong(0xDEADBEEFL);
+        }
+
+        // Act
+        AuditJournal reopened = open();
+
+        // Assert
+        assertEquals(1, reopened.getPendingRecords());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Should rewind once everything is replayed and reject events when full")
+    void testCommit_RewindsAndFull() {
+        // Arrange
+        AuditJournal journal = new AuditJournal(tempDir.resolve("small.bin").toString(), DataSize.ofBytes(160));
+
+        // Act
+        boolean first = journal.append(event());
+        boolean second = journal.append(event());
+        journal.commit(journal.readBatch(10));
+
+        // Assert
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(0, journal.getUsedBytes());
+        assertTrue(journal.append(event()));
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Should refuse to open a journal another owner holds")
+    void testOpen_Locked() {
+        // Arrange
+        AuditJournal journal = open();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, this::open);
+        journal.close();
+        open().close();
+    }
+
+    @Test
+    @DisplayName("Should commit part of a batch and read the rest again")
+    void testCommit_Partial() {
+        // Arrange
+        AuditJournal journal = open();
+        AuditEvent first = event();
+        AuditEvent second = event();
+        journal.append(first);
+        journal.append(second);
+
+        // Act
+        journal.commit(journal.readBatch(10), 1);
+        AuditJournal.Batch rest = journal.readBatch(10);
+
+        // Assert
+        assertEquals(1, journal.getPendingRecords());
+        assertEquals(second.getUserId(), rest.events().get(0).getUserId());
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Should give a record written without an id the same id on every read")
+    void testDecode_LegacyRecordStableId() {
+        // Arrange - the payload layout before row ids were journaled
+        byte[] current = AuditJournal.encode(event());
+        byte[] legacy = Arrays.copyOfRange(current, 17, current.length);
+
+        // Act
+        AuditEvent first = AuditJournal.decode(legacy);
+        AuditEvent second = AuditJournal.decode(legacy);
+
+        // Assert
+        assertEquals(first.getId(), second.getId());
+        assertEquals(AuditJournal.decode(current).getUserId(), first.getUserId());
+    }
+
+    private AuditJournal open() {
+        return new AuditJournal(tempDir.resolve("journal.bin").toString(), DataSize.ofKilobytes(64));
+    }
+
+    private AuditEvent event() {
+        return AuditEvent.builder()
+                .userId(UUID.randomUUID())
+                .eventType(AuthEventType.LOGIN)
+                .accessToken("jwt-token")
+                .ipAddress("127.0.0.1")
+                .userAgent("JUnit")
+                .eventTime(LocalDateTime.now())
+                .successful(true)
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.ntt.prueba.auth.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.ntt.prueba.auth.entity.AuthEventType;
+import com.ntt.prueba.auth.entity.User;
+import com.ntt.prueba.auth.repository.UserRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("AuthenticationAuditWriter Integration Tests")
+class AuthenticationAuditWriterIntegrationTest {
+
+    @Autowired
+    private AuthenticationAuditWriter auditWriter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        // Not transactional: the writer commits in its own transaction and must see the user
+        user = userRepository.save(User.builder()
+                .username("audit-writer@example.com")
+                .name("Audit Writer")
+                .password("$2a$10$XYZ123")
+                .roles(new ArrayList<>())
+                .phones(new ArrayList<>())
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM authentication_audit WHERE user_id = ?", user.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    @DisplayName("Should write each row of a failed batch exactly once, under the event's own id")
+    void testFlush_NoDuplicatesAfterRowRetry() {
+        // Arrange - the unknown user fails the batch after the first row was sent
+        AuditEvent first = event(user.getId());
+        AuditEvent unknownUser = event(UUID.randomUUID());
+        AuditEvent last = event(user.getId());
+
+        // Act
+        auditWriter.flush(List.of(first, unknownUser, last));
+        auditWriter.insertOne(first);
+
+        // Assert
+        List<UUID> rows = jdbcTemplate.queryForList("SELECT id FROM authentication_audit WHERE user_id = ?",
+                UUID.class, user.getId());
+        assertEquals(2, rows.size());
+        assertEquals(Set.of(first.getId(), last.getId()), Set.copyOf(rows));
+    }
+
+    private static AuditEvent event(UUID userId) {
+        return AuditEvent.builder()
+                .userId(userId)
+                .eventType(AuthEventType.LOGIN)
+                .eventTime(LocalDateTime.now())
+                .successful(true)
+                .build();
+    }
+}
@@ -0,0 +1,195 @@
+package com.ntt.prueba.auth.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.ntt.prueba.auth.entity.AuthEventType;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuthenticationAuditWriter Tests")
+class AuthenticationAuditWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AuditJournal journal;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should insert queued events in a single batch")
+    void testSubmit_WritesBatch() {
+        // Arrange
+        AtomicInteger written = new AtomicInteger();
+        when(jdbcTemplate.batchUpdate(eq(AuthenticationAuditWriter.INSERT_SQL), any(List.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenAnswer(invocation -> {
+                    written.addAndGet(invocation.<List<?>>getArgument(1).size());
+                    return new int[0][];
+                });
+        AuthenticationAuditWriter writer = writer(AuditBackPressurePolicy.BLOCK, 10);
+        writer.start();
+
+        // Act
+        writer.submit(event());
+        writer.submit(event());
+        writer.submit(event());
+        writer.stop();
+
+        // Assert
+        assertEquals(3, written.get());
+        assertEquals(0, writer.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("Should write synchronously when the writers are not running")
+    void testSubmit_NotRunning() {
+        // Arrange
+        AuthenticationAuditWriter writer = writer(AuditBackPressurePolicy.BLOCK, 10);
+
+        // Act
+        writer.submit(event());
+
+        // Assert
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(AuthenticationAuditWriter.INSERT_SQL), any(List.class),
+                anyInt(), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @DisplayName("Should drop the oldest event when the queue is full")
+    void testSubmit_DropOldest() {
+        // Arrange
+        AuthenticationAuditWriter writer = writer(AuditBackPressurePolicy.DROP_OLDEST, 2);
+        // Mark as running without writer threads so nothing consumes the queue
+        ReflectionTestUtils.setField(writer, "running", true);
+
+        // Act
+        writer.submit(event());
+        writer.submit(event());
+        writer.submit(event());
+
+        // Assert
+        assertEquals(2, writer.getQueueDepth());
+        assertEquals(1.0, meterRegistry.get("auth.audit.dropped").counter().count());
+        verify(jdbcTemplate, never()).batchUpdate(any(String.class), any(List.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @DisplayName("Should journal a batch that fails to insert")
+    void testFlush_JournalsOnFailure() {
+        // Arrange
+        when(jdbcTemplate.batchUpdate(eq(AuthenticationAuditWriter.INSERT_SQL), any(List.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new CannotGetJdbcConnectionException("connection refused"));
+        when(journal.append(any(AuditEvent.class))).thenReturn(true);
+        AuthenticationAuditWriter writer = writer(AuditBackPressurePolicy.BLOCK, 10);
+
+        // Act
+        writer.flush(List.of(event(), event()));
+
+        // Assert
+        verify(journal, times(2)).append(any(AuditEvent.class));
+        assertEquals(2.0, meterRegistry.get("auth.audit.spilled").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should retry a failed batch row by row and journal only the failing row")
+    void testFlush_IsolatesBadRow() {
+        // Arrange
+        AuditEvent bad = event();
+        when(jdbcTemplate.batchUpdate(eq(AuthenticationAuditWriter.INSERT_SQL), any(List.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenAnswer(invocation -> {
+                    if (invocation.<List<?>>getArgument(1).contains(bad)) {
+                        throw new DataIntegrityViolationException("FK violation");
+                    }
+                    return new int[0][];
+                });
+        when(journal.append(any(AuditEvent.class))).thenReturn(true);
+        AuthenticationAuditWriter writer = writer(AuditBackPressurePolicy.BLOCK, 10);
+
+        // Act
+        writer.flush(List.of(event(), bad, event()));
+
+        // Assert
+        verify(journal, times(1)).append(bad);
+        assertEquals(1.0, meterRegistry.get("auth.audit.failed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should not lose events submitted while the writer is stopping")
+    void testSubmit_ConcurrentStop() throws InterruptedException {
+        // Arrange
+        AtomicInteger written = new AtomicInteger();
+        when(jdbcTemplate.batchUpdate(eq(AuthenticationAuditWriter.INSERT_SQL), any(List.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenAnswer(invocation -> {
+                    written.addAndGet(invocation.<List<?>>getArgument(1).size());
+                    return new int[0][];
+                });
+        AuthenticationAuditWriter writer = writer(AuditBackPressurePolicy.BLOCK, 10000);
+        writer.start();
+        Thread submitter = Thread.ofPlatform().start(() -> {
+            for (int i = 0; i < 2000; i++) {
+                writer.submit(event());
+            }
+        });
+
+        // Act
+        Thread.sleep(1);
+        writer.stop();
+        submitter.join();
+
+        // Assert
+        assertEquals(2000, written.get());
+        assertEquals(0, writer.getQueueDepth());
+    }
+
+    private AuthenticationAuditWriter writer(AuditBackPressurePolicy policy, int capacity) {
+        return new AuthenticationAuditWriter(jdbcTemplate, transactionManager, journal, meterRegistry, capacity, 1,
+                100, 50, policy);
+    }
+
+    private AuditEvent event() {
+        return AuditEvent.builder()
+                .userId(UUID.randomUUID())
+                .eventType(AuthEventType.LOGIN)
+                .accessToken("jwt-token")
+                .eventTime(LocalDateTime.now())
+                .successful(true)
+                .build();
+    }
+}
@@ -1,7 +1,9 @@
 package com.ntt.prueba.auth.controller;
 
 import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -164,6 +166,31 @@ class AuthControllerIntegrationTest {
 
         // ==================== Authenticate Tests ====================
 
+        @Test
+        @DisplayName("POST /api/v1/auth/authenticate - Should authenticate repeatedly with valid credentials")
+        void testAuthenticate_Success() throws Exception {
+                // Arrange - First register a user
+                RegisterRequest registerRequest = TestDataBuilder.defaultRegisterRequest().build();
+                mockMvc.perform(post("/api/v1/auth/register")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(registerRequest)))
+                                .andExpect(status().isOk());
+
+                AuthenticationRequest authRequest = AuthenticationRequest.builder()
+                                .username(registerRequest.getCorreo())
+                                .password(registerRequest.getPassword())
+                                .build();
+
+                // Act & Assert - the second login is served from the user details cache
+                for (int i = 0; i < 2; i++) {
+                        mockMvc.perform(post("/api/v1/auth/authenticate")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(objectMapper.writeValueAsString(authRequest)))
+                                        .andExpect(status().isOk())
+                                        .andExpect(jsonPath("$.accessToken", notNullValue()));
+                }
+        }
+
         @Test
         @DisplayName("POST /api/v1/auth/authenticate - Should fail with invalid credentials")
         void testAuthenticate_InvalidCredentials() throws Exception {
@@ -228,6 +255,39 @@ class AuthControllerIntegrationTest {
                                 .andExpect(jsonPath("$.refreshToken", notNullValue()));
         }
 
+        @Test
+        @DisplayName("POST /api/v1/auth/refresh-token - Should revoke the family when a used token is replayed")
+        void testRefreshToken_ReplayRevokesFamily() throws Exception {
+                // Arrange - Register and rotate the refresh token once
+                RegisterRequest registerRequest = TestDataBuilder.defaultRegisterRequest().build();
+                String registerResponse = mockMvc.perform(post("/api/v1/auth/register")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(registerRequest)))
+                                .andExpect(status().isOk())
+                                .andReturn()
+                                .getResponse()
+                                .getContentAsString();
+                String firstToken = objectMapper.readTree(registerResponse).get("refreshToken").asText();
+                String refreshResponse = mockMvc.perform(post("/api/v1/auth/refresh-token")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"refreshToken\":\"" + firstToken + "\"}"))
+                                .andExpect(status().isOk())
+                                .andReturn()
+                                .getResponse()
+                                .getContentAsString();
+                String secondToken = objectMapper.readTree(refreshResponse).get("refreshToken").asText();
+
+                // Act & Assert - Replaying the first token revokes the second one as well
+                mockMvc.perform(post("/api/v1/auth/refresh-token")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"refreshToken\":\"" + firstToken + "\"}"))
+                                .andExpect(status().isUnauthorized());
+                mockMvc.perform(post("/api/v1/auth/refresh-token")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"refreshToken\":\"" + secondToken + "\"}"))
+                                .andExpect(status().isNotFound());
+        }
+
         @Test
         @DisplayName("POST /api/v1/auth/refresh-token - Should fail with invalid token")
         void testRefreshToken_InvalidToken() throws Exception {
@@ -277,4 +337,17 @@ class AuthControllerIntegrationTest {
                                 .content("{\"refreshToken\":\"invalid-token\"}"))
                                 .andExpect(status().isOk()); // Should not fail, just do nothing
         }
+
+        // ==================== JWKS Tests ====================
+
+        @Test
+        @DisplayName("GET /.well-known/jwks.json - Should be public and cacheable")
+        void testJwks_Public() throws Exception {
+                // Act & Assert - HMAC keys are never published, so the set is empty in the test profile
+                mockMvc.perform(get("/.well-known/jwks.json"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("Cache-Control", "max-age=300, public"))
+                                .andExpect(jsonPath("$.keys").isArray())
+                                .andExpect(jsonPath("$.keys").isEmpty());
+        }
 }
@@ -1,29 +1,41 @@
 package com.ntt.prueba.auth.service.impl;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Instant;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import com.ntt.prueba.auth.audit.AuthenticationAuditWriter;
 import com.ntt.prueba.auth.dto.AuthResponse;
 import com.ntt.prueba.auth.dto.AuthenticationRequest;
 import com.ntt.prueba.auth.dto.RefreshTokenRequest;
@@ -31,13 +43,18 @@ import com.ntt.prueba.auth.dto.RegisterRequest;
 import com.ntt.prueba.auth.entity.RefreshToken;
 import com.ntt.prueba.auth.entity.Role;
 import com.ntt.prueba.auth.entity.User;
-import com.ntt.prueba.auth.repository.AuthenticationAuditRepository;
+import com.ntt.prueba.auth.event.AccessTokenRevokedEvent;
 import com.ntt.prueba.auth.repository.RefreshTokenRepository;
+import com.ntt.prueba.auth.repository.RefreshTokenRotation.ConsumedRefreshToken;
 import com.ntt.prueba.auth.repository.RoleRepository;
 import com.ntt.prueba.auth.repository.UserRepository;
+import com.ntt.prueba.auth.service.SessionService;
 import com.ntt.prueba.auth.service.UserService;
 import com.ntt.prueba.exception.exception.BaseException;
+import com.ntt.prueba.exception.exception.ServiceOverloadedException;
 import com.ntt.prueba.security.JwtService;
+import com.ntt.prueba.security.OpaqueTokens;
+import com.ntt.prueba.security.ParsedToken;
 import com.ntt.prueba.util.TestDataBuilder;
 
 @ExtendWith(MockitoExtension.class)
@@ -66,7 +83,13 @@ class AuthServiceImplTest {
     private PasswordEncoder passwordEncoder;
 
     @Mock
-    private AuthenticationAuditRepository auditRepository;
+    private AuthenticationAuditWriter auditWriter;
+
+    @Mock
+    private SessionService sessionService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private AuthServiceImpl authService;
@@ -111,7 +134,7 @@ class AuthServiceImplTest {
         verify(userRepository, times(1)).save(any(User.class));
         verify(jwtService, times(1)).generateToken(any(User.class));
         verify(refreshTokenRepository, times(1)).save(any(RefreshToken.class));
-        verify(auditRepository, times(1)).save(any());
+        verify(auditWriter, times(1)).submit(any());
     }
 
     @Test
@@ -203,7 +226,8 @@ class AuthServiceImplTest {
         assertNotNull(response.getRefreshToken());
         verify(authenticationManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
         verify(userRepository, times(1)).save(testUser);
-        verify(auditRepository, times(1)).save(any());
+        verify(sessionService, times(1)).enforceSessionLimit(testUser);
+        verify(auditWriter, times(1)).submit(any());
     }
 
     @Test
@@ -221,7 +245,7 @@ class AuthServiceImplTest {
             authService.authenticate(request);
         });
 
-        verify(auditRepository, times(1)).save(any()); // Failed login audit
+        verify(auditWriter, times(1)).submit(any()); // Failed login audit
     }
 
     @Test
@@ -240,6 +264,24 @@ class AuthServiceImplTest {
         });
     }
 
+    @Test
+    @DisplayName("Should surface an overloaded hashing pool instead of an authentication error")
+    void testAuthenticate_HashingOverloaded() {
+        // Arrange
+        AuthenticationRequest request = TestDataBuilder.defaultAuthRequest().build();
+        ServiceOverloadedException overloaded = new ServiceOverloadedException("Too many requests", 1);
+
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenThrow(new InternalAuthenticationServiceException(overloaded.getMessage(), overloaded));
+
+        // Act & Assert
+        assertThrows(ServiceOverloadedException.class, () -> {
+            authService.authenticate(request);
+        });
+
+        verify(auditWriter, times(0)).submit(any());
+    }
+
     // ==================== Refresh Token Tests ====================
 
     @Test
@@ -250,8 +292,9 @@ class AuthServiceImplTest {
                 .refreshToken(testRefreshToken.getToken())
                 .build();
 
-        when(refreshTokenRepository.findByToken(request.getRefreshToken()))
-                .thenReturn(Optional.of(testRefreshToken));
+        when(refreshTokenRepository.consume(eq(OpaqueTokens.digest(request.getRefreshToken())), any(Instant.class)))
+                .thenReturn(Optional.of(consumed(testRefreshToken)));
+        when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
         when(jwtService.generateToken(any(User.class))).thenReturn("new-jwt-token");
         when(jwtService.getRefreshExpiration()).thenReturn(86400000L);
         when(refreshTokenRepository.save(any(RefreshToken.class))).thenReturn(testRefreshToken);
@@ -263,9 +306,36 @@ class AuthServiceImplTest {
         assertNotNull(response);
         assertEquals("new-jwt-token", response.getAccessToken());
         assertNotNull(response.getRefreshToken());
-        verify(refreshTokenRepository, times(1)).delete(testRefreshToken);
+        verify(refreshTokenRepository, times(0)).findByTokenHash(any());
         verify(refreshTokenRepository, times(1)).save(any(RefreshToken.class));
-        verify(auditRepository, times(1)).save(any());
+        verify(auditWriter, times(1)).submit(any());
+    }
+
+    @Test
+    @DisplayName("Should issue an opaque refresh token in the same family and persist only its digest")
+    void testRefreshToken_StoresDigestOnly() {
+        // Arrange
+        RefreshTokenRequest request = RefreshTokenRequest.builder()
+                .refreshToken(testRefreshToken.getToken())
+                .build();
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+
+        when(refreshTokenRepository.consume(eq(OpaqueTokens.digest(request.getRefreshToken())), any(Instant.class)))
+                .thenReturn(Optional.of(consumed(testRefreshToken)));
+        when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
+        when(jwtService.generateToken(any(User.class))).thenReturn("new-jwt-token");
+        when(jwtService.getRefreshExpiration()).thenReturn(86400000L);
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        AuthResponse response = authService.refreshToken(request);
+
+        // Assert
+        verify(refreshTokenRepository).save(captor.capture());
+        assertEquals(43, response.getRefreshToken().length());
+        assertNotEquals(request.getRefreshToken(), response.getRefreshToken());
+        assertArrayEquals(OpaqueTokens.digest(response.getRefreshToken()), captor.getValue().getTokenHash());
+        assertEquals(testRefreshToken.getFamilyId(), captor.getValue().getFamilyId());
     }
 
     @Test
@@ -276,7 +346,8 @@ class AuthServiceImplTest {
                 .refreshToken("invalid-token")
                 .build();
 
-        when(refreshTokenRepository.findByToken(request.getRefreshToken()))
+        when(refreshTokenRepository.consume(any(), any(Instant.class))).thenReturn(Optional.empty());
+        when(refreshTokenRepository.findByTokenHash(OpaqueTokens.digest(request.getRefreshToken())))
                 .thenReturn(Optional.empty());
 
         // Act & Assert
@@ -296,7 +367,8 @@ class AuthServiceImplTest {
                 .refreshToken(expiredToken.getToken())
                 .build();
 
-        when(refreshTokenRepository.findByToken(request.getRefreshToken()))
+        when(refreshTokenRepository.consume(any(), any(Instant.class))).thenReturn(Optional.empty());
+        when(refreshTokenRepository.findByTokenHash(OpaqueTokens.digest(request.getRefreshToken())))
                 .thenReturn(Optional.of(expiredToken));
 
         // Act & Assert
@@ -306,7 +378,31 @@ class AuthServiceImplTest {
 
         assertTrue(exception.getMessage().contains("expired"));
         verify(refreshTokenRepository, times(1)).delete((RefreshToken) expiredToken);
-        verify(auditRepository, times(1)).save(any()); // Expired token audit
+        verify(auditWriter, times(1)).submit(any()); // Expired token audit
+    }
+
+    @Test
+    @DisplayName("Should revoke the whole family when a consumed refresh token is replayed")
+    void testRefreshToken_ReplayRevokesFamily() {
+        // Arrange
+        testRefreshToken.setConsumedAt(Instant.now().minusSeconds(60));
+        RefreshTokenRequest request = RefreshTokenRequest.builder()
+                .refreshToken(testRefreshToken.getToken())
+                .build();
+
+        when(refreshTokenRepository.consume(any(), any(Instant.class))).thenReturn(Optional.empty());
+        when(refreshTokenRepository.findByTokenHash(OpaqueTokens.digest(request.getRefreshToken())))
+                .thenReturn(Optional.of(testRefreshToken));
+
+        // Act & Assert
+        BaseException exception = assertThrows(BaseException.class, () -> {
+            authService.refreshToken(request);
+        });
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getHttpStatus());
+        verify(refreshTokenRepository, times(1)).deleteByFamilyId(testRefreshToken.getFamilyId());
+        verify(refreshTokenRepository, times(0)).save(any(RefreshToken.class));
+        verify(auditWriter, times(1)).submit(any()); // Revocation audit
     }
 
     // ==================== Logout Tests ====================
@@ -319,15 +415,47 @@ class AuthServiceImplTest {
                 .refreshToken(testRefreshToken.getToken())
                 .build();
 
-        when(refreshTokenRepository.findByToken(request.getRefreshToken()))
+        when(refreshTokenRepository.findByTokenHash(OpaqueTokens.digest(request.getRefreshToken())))
                 .thenReturn(Optional.of(testRefreshToken));
 
         // Act
         authService.logout(request);
 
         // Assert
-        verify(refreshTokenRepository, times(1)).delete(testRefreshToken);
-        verify(auditRepository, times(1)).save(any());
+        verify(refreshTokenRepository, times(1)).deleteByFamilyId(testRefreshToken.getFamilyId());
+        verify(auditWriter, times(1)).submit(any());
+    }
+
+    @Test
+    @DisplayName("Should deny the access token sent with the logout request")
+    void testLogout_RevokesAccessToken() {
+        // Arrange
+        RefreshTokenRequest request = RefreshTokenRequest.builder()
+                .refreshToken(testRefreshToken.getToken())
+                .build();
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest();
+        httpRequest.addHeader("Authorization", "Bearer access-token");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(httpRequest));
+        Instant expiresAt = Instant.now().plusSeconds(600);
+        ParsedToken accessToken = ParsedToken.builder()
+                .tokenId("jti-1")
+                .subject(testUser.getUsername())
+                .expiresAt(expiresAt)
+                .build();
+
+        when(refreshTokenRepository.findByTokenHash(OpaqueTokens.digest(request.getRefreshToken())))
+                .thenReturn(Optional.of(testRefreshToken));
+        when(jwtService.parseToken("access-token")).thenReturn(accessToken);
+
+        // Act
+        try {
+            authService.logout(request);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        // Assert
+        verify(eventPublisher, times(1)).publishEvent(new AccessTokenRevokedEvent("jti-1", expiresAt));
     }
 
     @Test
@@ -338,14 +466,19 @@ class AuthServiceImplTest {
                 .refreshToken("invalid-token")
                 .build();
 
-        when(refreshTokenRepository.findByToken(request.getRefreshToken()))
+        when(refreshTokenRepository.findByTokenHash(OpaqueTokens.digest(request.getRefreshToken())))
                 .thenReturn(Optional.empty());
 
         // Act
         authService.logout(request);
 
         // Assert
-        verify(refreshTokenRepository, times(0)).delete(any(RefreshToken.class));
-        verify(auditRepository, times(0)).save(any());
+        verify(refreshTokenRepository, times(0)).deleteByFamilyId(any());
+        verify(auditWriter, times(0)).submit(any());
+    }
+
+    private ConsumedRefreshToken consumed(RefreshToken refreshToken) {
+        return new ConsumedRefreshToken(refreshToken.getId(), refreshToken.getUser().getId(),
+                refreshToken.getFamilyId());
     }
 }
@@ -0,0 +1,108 @@
+package com.ntt.prueba.auth.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.ntt.prueba.auth.event.UserSecurityChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CachingUserDetailsService Tests")
+class CachingUserDetailsServiceTest {
+
+    @Mock
+    private UserDetailsService delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CachingUserDetailsService cachingService;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cachingService = new CachingUserDetailsService(delegate, 100, Duration.ofMinutes(5), meterRegistry);
+        userDetails = User.withUsername("testuser")
+                .password("encodedPassword123")
+                .roles("USER")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should load user once and serve repeated lookups from cache")
+    void testLoadUserByUsername_CachesResult() {
+        // Arrange
+        when(delegate.loadUserByUsername("testuser")).thenReturn(userDetails);
+
+        // Act
+        cachingService.loadUserByUsername("testuser");
+        UserDetails result = cachingService.loadUserByUsername("testuser");
+
+        // Assert
+        assertEquals("testuser", result.getUsername());
+        verify(delegate, times(1)).loadUserByUsername("testuser");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "userDetails").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should return copies so erasing credentials does not corrupt the cache")
+    void testLoadUserByUsername_ReturnsCopies() {
+        // Arrange
+        when(delegate.loadUserByUsername("testuser")).thenReturn(userDetails);
+
+        // Act
+        UserDetails first = cachingService.loadUserByUsername("testuser");
+        ((CredentialsContainer) first).eraseCredentials();
+        UserDetails second = cachingService.loadUserByUsername("testuser");
+
+        // Assert
+        assertNotSame(first, second);
+        assertEquals("encodedPassword123", second.getPassword());
+    }
+
+    @Test
+    @DisplayName("Should evict entry when the user's security data changes")
+    void testOnUserSecurityChanged_Evicts() {
+        // Arrange
+        when(delegate.loadUserByUsername("testuser")).thenReturn(userDetails);
+        cachingService.loadUserByUsername("testuser");
+
+        // Act
+        cachingService.onUserSecurityChanged(new UserSecurityChangedEvent("testuser"));
+        cachingService.loadUserByUsername("testuser");
+
+        // Assert
+        verify(delegate, times(2)).loadUserByUsername("testuser");
+    }
+
+    @Test
+    @DisplayName("Should not cache missing users")
+    void testLoadUserByUsername_NotFound() {
+        // Arrange
+        when(delegate.loadUserByUsername("missing")).thenThrow(new UsernameNotFoundException("User not found: missing"));
+
+        // Act & Assert
+        assertThrows(UsernameNotFoundException.class, () -> cachingService.loadUserByUsername("missing"));
+        assertThrows(UsernameNotFoundException.class, () -> cachingService.loadUserByUsername("missing"));
+        verify(delegate, times(2)).loadUserByUsername("missing");
+    }
+}
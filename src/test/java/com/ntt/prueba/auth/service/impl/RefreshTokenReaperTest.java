@@ -0,0 +1,117 @@
+package com.ntt.prueba.auth.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ntt.prueba.auth.entity.RefreshToken;
+import com.ntt.prueba.auth.entity.User;
+import com.ntt.prueba.auth.repository.RefreshTokenRepository;
+import com.ntt.prueba.auth.repository.UserRepository;
+import com.ntt.prueba.config.SchedulerLockProvider;
+import com.ntt.prueba.security.OpaqueTokens;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("RefreshTokenReaper Tests")
+class RefreshTokenReaperTest {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SchedulerLockProvider lockProvider;
+
+    private SimpleMeterRegistry meterRegistry;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        user = userRepository.save(User.builder()
+                .username("reaper@example.com")
+                .name("Reaper User")
+                .password("$2a$10$XYZ123")
+                .roles(new ArrayList<>())
+                .phones(new ArrayList<>())
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should delete only expired tokens across several keyset batches")
+    void testPurge_ExpiredOnly() {
+        // Arrange
+        Instant now = Instant.now();
+        for (int i = 1; i <= 5; i++) {
+            saveToken(now.minusSeconds(i * 60L));
+        }
+        saveToken(now.plusSeconds(3600));
+        saveToken(now.plusSeconds(7200));
+        RefreshTokenReaper reaper = new RefreshTokenReaper(refreshTokenRepository, lockProvider, meterRegistry,
+                true, 2, 0, Duration.ofMinutes(1));
+
+        // Act
+        int purged = reaper.purge(now, System.nanoTime() + Duration.ofMinutes(1).toNanos());
+
+        // Assert
+        assertEquals(5, purged);
+        assertEquals(2, refreshTokenRepository.count());
+        assertEquals(5.0, meterRegistry.get("auth.refresh_token.purged").counter().count());
+        assertEquals(3, meterRegistry.get("auth.refresh_token.purge.batch").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should not start a batch once the lock budget is spent")
+    void testPurge_BudgetSpent() {
+        // Arrange
+        Instant now = Instant.now();
+        saveToken(now.minusSeconds(60));
+        RefreshTokenReaper reaper = new RefreshTokenReaper(refreshTokenRepository, lockProvider, meterRegistry,
+                true, 2, 0, Duration.ofMinutes(1));
+
+        // Act
+        int purged = reaper.purge(now, System.nanoTime());
+
+        // Assert
+        assertEquals(0, purged);
+        assertEquals(1, refreshTokenRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should hand the scheduler lock to one holder at a time")
+    void testSchedulerLock_SingleHolder() {
+        // Act & Assert
+        assertTrue(lockProvider.tryLock("test-job", Duration.ofMinutes(1)));
+        assertFalse(lockProvider.tryLock("test-job", Duration.ofMinutes(1)));
+        lockProvider.unlock("test-job");
+        assertTrue(lockProvider.tryLock("test-job", Duration.ofMinutes(1)));
+    }
+
+    private void saveToken(Instant expiryDate) {
+        refreshTokenRepository.save(RefreshToken.builder()
+                .user(user)
+                .tokenHash(OpaqueTokens.digest(OpaqueTokens.generate()))
+                .familyId(UUID.randomUUID())
+                .expiryDate(expiryDate)
+                .build());
+    }
+}
@@ -0,0 +1,102 @@
+package com.ntt.prueba.auth.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ntt.prueba.auth.dto.SessionDTO;
+import com.ntt.prueba.auth.entity.RefreshToken;
+import com.ntt.prueba.auth.entity.User;
+import com.ntt.prueba.auth.repository.RefreshTokenRepository;
+import com.ntt.prueba.auth.repository.UserRepository;
+import com.ntt.prueba.exception.exception.BaseException;
+import com.ntt.prueba.security.OpaqueTokens;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("SessionServiceImpl Tests")
+class SessionServiceImplTest {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private SessionServiceImpl sessionService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        sessionService = new SessionServiceImpl(refreshTokenRepository, 2);
+        user = userRepository.save(User.builder()
+                .username("sessions@example.com")
+                .name("Session User")
+                .password("$2a$10$XYZ123")
+                .roles(new ArrayList<>())
+                .phones(new ArrayList<>())
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used session when the limit is reached")
+    void testEnforceSessionLimit_EvictsLeastRecentlyUsed() throws Exception {
+        // Arrange
+        UUID oldest = startSession();
+        UUID newest = startSession();
+
+        // Act
+        sessionService.enforceSessionLimit(user);
+
+        // Assert
+        List<SessionDTO> sessions = sessionService.getSessions(user.getId());
+        assertEquals(1, sessions.size());
+        assertEquals(newest, sessions.get(0).getSessionId());
+        assertTrue(sessions.get(0).getExpiresAt().isAfter(sessions.get(0).getLastUsed()));
+        assertEquals(0, refreshTokenRepository.deleteByFamilyId(oldest));
+    }
+
+    @Test
+    @DisplayName("Should revoke a session and reject one the user does not own")
+    void testRevokeSession() throws Exception {
+        // Arrange
+        UUID session = startSession();
+
+        // Act
+        sessionService.revokeSession(user.getId(), session);
+
+        // Assert
+        assertEquals(0, sessionService.getSessions(user.getId()).size());
+        BaseException exception = assertThrows(BaseException.class,
+                () -> sessionService.revokeSession(user.getId(), UUID.randomUUID()));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getHttpStatus());
+    }
+
+    private UUID startSession() throws InterruptedException {
+        // Keep creation timestamps apart so the LRU order is deterministic
+        Thread.sleep(5);
+        UUID familyId = UUID.randomUUID();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .user(user)
+                .tokenHash(OpaqueTokens.digest(OpaqueTokens.generate()))
+                .familyId(familyId)
+                .expiryDate(Instant.now().plusSeconds(3600))
+                .build());
+        return familyId;
+    }
+}
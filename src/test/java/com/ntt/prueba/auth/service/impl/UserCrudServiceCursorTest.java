@@ -0,0 +1,137 @@
+package com.ntt.prueba.auth.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ntt.prueba.auth.dto.UserDTO;
+import com.ntt.prueba.auth.entity.User;
+import com.ntt.prueba.auth.repository.UserRepository;
+import com.ntt.prueba.auth.service.UserCrudService;
+import com.ntt.prueba.exception.exception.BaseException;
+import com.ntt.prueba.shared.BaseService;
+import com.ntt.prueba.shared.CursorResponse;
+
+import jakarta.persistence.EntityManager;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("UserCrudService cursor pagination Tests")
+class UserCrudServiceCursorTest {
+
+    @Autowired
+    private UserCrudService userCrudService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("Should visit every row exactly once, in (createdDate, id) order, across tied timestamps")
+    void testGetAllByCursor_WalksAllRows() {
+        // Arrange - five users sharing one creation timestamp, so only the id breaks ties
+        List<UUID> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(userRepository.save(User.builder()
+                    .username("cursor" + i + "@example.com")
+                    .name("Cursor User " + i)
+                    .password("$2a$10$XYZ123")
+                    .roles(new ArrayList<>())
+                    .phones(new ArrayList<>())
+                    .build()).getId());
+        }
+        entityManager.flush();
+        Timestamp tie = Timestamp.valueOf(LocalDateTime.of(2030, 1, 1, 0, 0));
+        created.forEach(id -> jdbcTemplate.update("UPDATE users SET created_date = ? WHERE id = ?", tie, id));
+        entityManager.clear();
+
+        // Act
+        List<UUID> visited = new ArrayList<>();
+        String cursor = null;
+        CursorResponse<UserDTO> page;
+        do {
+            page = userCrudService.getAllByCursor(cursor, 2);
+            page.getContent().forEach(user -> visited.add(user.getId()));
+            cursor = page.getNextCursor();
+        } while (!page.isLast());
+
+        // Assert
+        Set<UUID> distinct = new HashSet<>(visited);
+        assertEquals(visited.size(), distinct.size());
+        assertEquals(userRepository.countActive(), visited.size());
+        assertTrue(distinct.containsAll(created));
+        // The tied rows come last, in id order as the database compares them
+        assertEquals(visited.subList(visited.size() - 5, visited.size()), jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE created_date = ? ORDER BY id", UUID.class, tie));
+    }
+
+    @Test
+    @DisplayName("Should refuse a NULL creation date, which the (createdDate, id) cursor could not place")
+    void testGetAllByCursor_NullCreatedDateRejected() {
+        // Arrange
+        UUID id = userRepository.save(User.builder()
+                .username("undated@example.com")
+                .name("Undated User")
+                .password("$2a$10$XYZ123")
+                .roles(new ArrayList<>())
+                .phones(new ArrayList<>())
+                .build()).getId();
+        entityManager.flush();
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class,
+                () -> jdbcTemplate.update("UPDATE users SET created_date = NULL WHERE id = ?", id));
+        List<UUID> visited = new ArrayList<>();
+        String cursor = null;
+        CursorResponse<UserDTO> page;
+        do {
+            page = userCrudService.getAllByCursor(cursor, 1);
+            page.getContent().forEach(user -> visited.add(user.getId()));
+            cursor = page.getNextCursor();
+        } while (!page.isLast());
+        assertTrue(visited.contains(id));
+    }
+
+    @Test
+    @DisplayName("Should clamp an oversized page instead of overflowing size + 1")
+    void testGetAllByCursor_ClampsSize() {
+        // Act
+        CursorResponse<UserDTO> page = userCrudService.getAllByCursor(null, Integer.MAX_VALUE);
+
+        // Assert
+        assertEquals(BaseService.MAX_PAGE_SIZE, page.getPageSize());
+        assertTrue(page.getContent().size() <= BaseService.MAX_PAGE_SIZE);
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor that was not issued by the service")
+    void testGetAllByCursor_InvalidCursor() {
+        // Act & Assert
+        BaseException ex = assertThrows(BaseException.class, () -> userCrudService.getAllByCursor("not-a-cursor", 2));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getHttpStatus());
+    }
+}
@@ -0,0 +1,137 @@
+package com.ntt.prueba.auth.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ntt.prueba.auth.dto.UserDTO;
+import com.ntt.prueba.auth.entity.User;
+import com.ntt.prueba.auth.repository.UserRepository;
+import com.ntt.prueba.auth.service.UserCrudService;
+import com.ntt.prueba.shared.GenericSpecificationBuilder;
+
+import jakarta.persistence.EntityManager;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("UserCrudService filter operator Tests")
+class UserCrudServiceFilterTest {
+
+    @Autowired
+    private UserCrudService userCrudService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("Should match usernames by case-insensitive prefix, with LIKE wildcards taken literally")
+    void testUsernamePrefix() {
+        // Arrange
+        save("Prefix_one@example.com", "Prefix One");
+        save("prefixXtwo@example.com", "Prefix Two");
+        save("not.prefix_one@example.com", "Prefix Three");
+
+        // Act
+        List<String> matched = usernames(UserDTO.FiltersUserDTO.builder().username("PREFIX_").build());
+
+        // Assert
+        assertEquals(List.of("prefix_one@example.com"), matched.stream().map(String::toLowerCase).toList());
+    }
+
+    @Test
+    @DisplayName("Should combine a full-text name match with a created date range")
+    void testNameAndCreatedRange() {
+        // Arrange
+        UUID old = save("range1@example.com", "Ada Range Lovelace");
+        save("range2@example.com", "Ada Range Byron");
+        save("range3@example.com", "Grace Hopper");
+        entityManager.flush();
+        jdbcTemplate.update("UPDATE users SET created_date = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.of(2000, 1, 1, 0, 0)), old);
+        entityManager.clear();
+
+        // Act
+        List<String> all = usernames(UserDTO.FiltersUserDTO.builder().name("ada range").build());
+        List<String> recent = usernames(UserDTO.FiltersUserDTO.builder()
+                .name("ada range")
+                .createdFrom(LocalDateTime.of(2020, 1, 1, 0, 0))
+                .build());
+
+        // Assert
+        assertEquals(2, all.size());
+        assertEquals(List.of("range2@example.com"), recent);
+    }
+
+    @Test
+    @DisplayName("Should match the default substring filter with LIKE wildcards taken literally")
+    void testContains_EscapesWildcards() {
+        // Arrange
+        save("contains_50%@example.com", "Contains One");
+        save("containsX50X@example.com", "Contains Two");
+
+        // Act
+        List<String> matched = userRepository.findAll(new GenericSpecificationBuilder<User>()
+                .build(new SubstringFilter("s_50%"))).stream()
+                .map(User::getUsername)
+                .toList();
+
+        // Assert
+        assertEquals(List.of("contains_50%@example.com"), matched);
+    }
+
+    @Test
+    @DisplayName("Should match every full-text word in any order, with LIKE wildcards taken literally")
+    void testFullText_EveryWordEscaped() {
+        // Arrange
+        save("words1@example.com", "Lovelace Words_100% Ada");
+        save("words2@example.com", "Ada WordsX100X Lovelace");
+        save("words3@example.com", "Ada Words Hopper");
+
+        // Act
+        List<String> reordered = usernames(UserDTO.FiltersUserDTO.builder().name("  ada   LOVELACE ").build());
+        List<String> literal = usernames(UserDTO.FiltersUserDTO.builder().name("ada s_100%").build());
+
+        // Assert
+        assertEquals(List.of("words1@example.com", "words2@example.com"), reordered.stream().sorted().toList());
+        assertEquals(List.of("words1@example.com"), literal);
+    }
+
+    private List<String> usernames(UserDTO.FiltersUserDTO filters) {
+        return userCrudService.getAll(0, 50, filters).getContent().stream()
+                .map(UserDTO::getUsername)
+                .toList();
+    }
+
+    // No @FilterOperator, so the string falls back to CONTAINS
+    private record SubstringFilter(String username) {
+    }
+
+    private UUID save(String username, String name) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .name(name)
+                .password("$2a$10$XYZ123")
+                .roles(new ArrayList<>())
+                .phones(new ArrayList<>())
+                .build()).getId();
+    }
+}
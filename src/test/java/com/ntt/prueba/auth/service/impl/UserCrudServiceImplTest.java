@@ -23,6 +23,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -33,6 +34,7 @@ import com.ntt.prueba.auth.dto.UserDTO.UpdateUserDTO;
 import com.ntt.prueba.auth.entity.Phone;
 import com.ntt.prueba.auth.entity.Role;
 import com.ntt.prueba.auth.entity.User;
+import com.ntt.prueba.auth.event.UserSecurityChangedEvent;
 import com.ntt.prueba.auth.mapper.UserMapper;
 import com.ntt.prueba.auth.repository.UserRepository;
 import com.ntt.prueba.exception.exception.BaseException;
@@ -50,6 +52,9 @@ class UserCrudServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserCrudServiceImpl userCrudService;
 
@@ -324,4 +329,38 @@ class UserCrudServiceImplTest {
         verify(userRepository, never()).findByUsername(anyString()); // Should not check for existing username
         verify(userRepository, times(1)).save(any(User.class));
     }
+
+    @Test
+    @DisplayName("Should publish security change event when password is updated")
+    void testUpdateUser_PublishesSecurityChange() {
+        // Arrange
+        updateUserDTO.setPassword("newPassword123");
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.findByUsername("updateduser")).thenReturn(Optional.empty());
+        when(passwordEncoder.encode("newPassword123")).thenReturn("newEncodedPassword");
+        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userMapper.toDTO(any(User.class))).thenReturn(userDTO);
+
+        // Act
+        userCrudService.update(userId.toString(), updateUserDTO);
+
+        // Assert
+        verify(eventPublisher, times(1)).publishEvent(new UserSecurityChangedEvent("testuser"));
+    }
+
+    @Test
+    @DisplayName("Should not publish security change event when only the name changes")
+    void testUpdateUser_NameOnly_NoSecurityChange() {
+        // Arrange
+        updateUserDTO.setUsername(null);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userMapper.toDTO(any(User.class))).thenReturn(userDTO);
+
+        // Act
+        userCrudService.update(userId.toString(), updateUserDTO);
+
+        // Assert
+        verify(eventPublisher, never()).publishEvent(any());
+    }
 }
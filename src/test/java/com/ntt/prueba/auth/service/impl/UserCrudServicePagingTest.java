@@ -0,0 +1,100 @@
+package com.ntt.prueba.auth.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ntt.prueba.auth.dto.UserDTO;
+import com.ntt.prueba.auth.entity.User;
+import com.ntt.prueba.auth.repository.UserRepository;
+import com.ntt.prueba.shared.PageCountCache;
+import com.ntt.prueba.shared.PagedResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("UserCrudService paging Tests")
+class UserCrudServicePagingTest {
+
+    @Autowired
+    private UserCrudServiceImpl userCrudService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userCrudService.setPageCountCache(null);
+    }
+
+    @Test
+    @DisplayName("Should return the same rows without totals when counting is off")
+    void testGetAll_WithoutCount() {
+        // Arrange
+        saveUsers(3);
+        long total = userRepository.countActive();
+        int lastPage = (int) ((total - 1) / 2);
+
+        // Act
+        PagedResponse<UserDTO> counted = userCrudService.getAll(0, 2, true);
+        PagedResponse<UserDTO> first = userCrudService.getAll(0, 2, false);
+        PagedResponse<UserDTO> last = userCrudService.getAll(lastPage, 2, false);
+
+        // Assert
+        assertEquals(counted.getContent(), first.getContent());
+        assertEquals(-1, first.getTotalElements());
+        assertEquals(-1, first.getTotalPages());
+        assertFalse(first.isLast());
+        assertTrue(last.isLast());
+    }
+
+    @Test
+    @DisplayName("Should reuse the cached total for equal filters until it expires")
+    void testGetAll_CachedCount() {
+        // Arrange
+        userCrudService.setPageCountCache(new PageCountCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry()));
+        UserDTO.FiltersUserDTO filters = new UserDTO.FiltersUserDTO();
+        filters.setName("Paging User");
+        saveUsers(3);
+        PagedResponse<UserDTO> before = userCrudService.getAll(0, 2, filters, true);
+
+        // Act
+        saveUsers(1);
+        UserDTO.FiltersUserDTO sameFilters = new UserDTO.FiltersUserDTO();
+        sameFilters.setName("Paging User");
+        PagedResponse<UserDTO> after = userCrudService.getAll(0, 2, sameFilters, true);
+
+        // Assert
+        assertEquals(3, before.getTotalElements());
+        assertEquals(2, before.getTotalPages());
+        assertFalse(before.isLast());
+        // Still the cached total, although a fourth match now exists
+        assertEquals(3, after.getTotalElements());
+    }
+
+    private void saveUsers(int count) {
+        long offset = userRepository.count();
+        for (int i = 0; i < count; i++) {
+            userRepository.save(User.builder()
+                    .username("paging" + (offset + i) + "@example.com")
+                    .name("Paging User " + (offset + i))
+                    .password("$2a$10$XYZ123")
+                    .roles(new ArrayList<>())
+                    .phones(new ArrayList<>())
+                    .build());
+        }
+    }
+}
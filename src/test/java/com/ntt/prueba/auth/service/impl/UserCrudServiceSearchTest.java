@@ -0,0 +1,75 @@
+package com.ntt.prueba.auth.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.ntt.prueba.auth.dto.UserDTO;
+import com.ntt.prueba.auth.entity.User;
+import com.ntt.prueba.auth.repository.UserRepository;
+import com.ntt.prueba.auth.service.UserCrudService;
+import com.ntt.prueba.shared.BaseService;
+import com.ntt.prueba.shared.PagedResponse;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("UserCrudService search Tests")
+class UserCrudServiceSearchTest {
+
+    @Autowired
+    private UserCrudService userCrudService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    @DisplayName("Should find users as they are saved, soft deleted and restored")
+    void testSearch_FollowsWrites() {
+        // Arrange - not transactional, so each save commits and reaches the index
+        User user = userRepository.save(User.builder()
+                .username("searchable@example.com")
+                .name("Zebulon Quaxley")
+                .password("$2a$10$XYZ123")
+                .roles(new ArrayList<>())
+                .phones(new ArrayList<>())
+                .build());
+        try {
+            // Act
+            List<String> found = names("quaxl");
+            userCrudService.delete(user.getId().toString());
+            List<String> afterDelete = names("quaxl");
+            userCrudService.restore(user.getId().toString());
+            List<String> afterRestore = names("zebulon");
+
+            // Assert
+            assertEquals(List.of("Zebulon Quaxley"), found);
+            assertEquals(List.of(), afterDelete);
+            assertEquals(List.of("Zebulon Quaxley"), afterRestore);
+        } finally {
+            userRepository.deleteById(user.getId());
+        }
+        assertEquals(List.of(), names("quaxl"));
+    }
+
+    @Test
+    @DisplayName("Should clamp the page size and answer an empty page far past the end")
+    void testSearch_HugePage() {
+        // Act
+        PagedResponse<UserDTO> page = userCrudService.search("ada", Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+        // Assert
+        assertEquals(BaseService.MAX_PAGE_SIZE, page.getPageSize());
+        assertEquals(List.of(), page.getContent());
+    }
+
+    private List<String> names(String query) {
+        return userCrudService.search(query, 0, 10).getContent().stream().map(UserDTO::getName).toList();
+    }
+}
@@ -0,0 +1,92 @@
+package com.ntt.prueba.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.ntt.prueba.auth.event.AccessTokenRevokedEvent;
+import com.ntt.prueba.auth.event.UserSecurityChangedEvent;
+import com.ntt.prueba.auth.service.impl.CachingUserDetailsService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("InvalidationBus Tests")
+class InvalidationBusTest {
+
+    private TokenDenyList denyListA;
+    private TokenDenyList denyListB;
+    private CachingUserDetailsService userDetailsA;
+    private CachingUserDetailsService userDetailsB;
+    private SubjectRevocationList subjectsB;
+    private InvalidationBus busA;
+    private InvalidationTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        // Two nodes sharing one transport
+        transport = new InProcessInvalidationTransport();
+        denyListA = new TokenDenyList(16, new SimpleMeterRegistry());
+        denyListB = new TokenDenyList(16, new SimpleMeterRegistry());
+        userDetailsA = mock(CachingUserDetailsService.class);
+        userDetailsB = mock(CachingUserDetailsService.class);
+        subjectsB = mock(SubjectRevocationList.class);
+        busA = new InvalidationBus(transport, userDetailsA, mock(SubjectRevocationList.class), denyListA);
+        new InvalidationBus(transport, userDetailsB, subjectsB, denyListB);
+    }
+
+    @Test
+    @DisplayName("Should apply a token revocation on the other nodes")
+    void testTokenRevoked_AppliedRemotely() {
+        // Arrange
+        String tokenId = UUID.randomUUID().toString();
+
+        // Act
+        busA.onAccessTokenRevoked(new AccessTokenRevokedEvent(tokenId, Instant.now().plusSeconds(60)));
+
+        // Assert
+        assertTrue(denyListB.isRevoked(tokenId));
+        // The origin node applies it through its own event listener, not the bus
+        assertFalse(denyListA.isRevoked(tokenId));
+    }
+
+    @Test
+    @DisplayName("Should evict a changed user on the other nodes only")
+    void testUserChanged_AppliedRemotely() {
+        // Act
+        busA.onUserSecurityChanged(new UserSecurityChangedEvent("john"));
+
+        // Assert
+        verify(userDetailsB).evict("john");
+        verify(subjectsB).revoke(eq("john"), any(Instant.class));
+        verify(userDetailsA, never()).evict(any());
+    }
+
+    @Test
+    @DisplayName("Should revoke a redelivered user change as of the time it was recorded")
+    void testUserChanged_RevokedAsOfCreatedAt() {
+        // Arrange
+        Instant createdAt = Instant.now().minusSeconds(30);
+
+        // Act
+        transport.publish(Invalidation.builder()
+                .type(Invalidation.Type.USER_CHANGED)
+                .subject("john")
+                .origin("node-c")
+                .createdAt(createdAt)
+                .build());
+
+        // Assert
+        verify(subjectsB).revoke("john", createdAt);
+    }
+}
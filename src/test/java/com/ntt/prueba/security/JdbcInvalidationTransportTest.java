@@ -0,0 +1,150 @@
+package com.ntt.prueba.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("JdbcInvalidationTransport Tests")
+class JdbcInvalidationTransportTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcInvalidationTransport publisher;
+    private JdbcInvalidationTransport subscriber;
+    private List<Invalidation> received;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM revocation_events");
+        publisher = transport();
+        subscriber = transport();
+        received = new ArrayList<>();
+        subscriber.subscribe(received::add);
+    }
+
+    @Test
+    @DisplayName("Should replay live revocations on start and deliver new events on poll")
+    void testStartAndPoll() {
+        // Arrange
+        publisher.publish(revocation(Instant.now().plusSeconds(60)));
+        publisher.publish(revocation(Instant.now().minusSeconds(60)));
+
+        // Act
+        subscriber.start();
+        publisher.publish(Invalidation.builder()
+                .type(Invalidation.Type.USER_CHANGED)
+                .subject("john")
+                .origin("node-a")
+                .build());
+        int delivered = subscriber.poll();
+
+        // Assert
+        assertEquals(1, delivered);
+        assertEquals(2, received.size());
+        assertEquals(Invalidation.Type.TOKEN_REVOKED, received.get(0).getType());
+        assertEquals("john", received.get(1).getSubject());
+        assertEquals(0, subscriber.poll());
+    }
+
+    @Test
+    @DisplayName("Should purge only events past retention whose token has expired")
+    void testPurge() {
+        // Arrange
+        JdbcInvalidationTransport noRetention = new JdbcInvalidationTransport(jdbcTemplate,
+                new SimpleMeterRegistry(), 500, Duration.ofSeconds(5), Duration.ZERO, 0L);
+        publisher.publish(revocation(Instant.now().plusSeconds(60)));
+        publisher.publish(revocation(Instant.now().minusSeconds(60)));
+        // created_at is stamped with the transaction start time, so age the rows past it
+        jdbcTemplate.update("UPDATE revocation_events SET created_at = ?",
+                Timestamp.from(Instant.now().minusSeconds(60)));
+
+        // Act
+        int purged = noRetention.purge();
+
+        // Assert
+        assertEquals(1, purged);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM revocation_events", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Should replay user changes younger than the token lifetime on start, stamped with created_at")
+    void testStart_ReplaysRecentUserChanges() {
+        // Arrange
+        publisher.publish(userChanged("john"));
+        publisher.publish(userChanged("jane"));
+        Instant changedAt = Instant.now().minusSeconds(60).truncatedTo(ChronoUnit.MILLIS);
+        jdbcTemplate.update("UPDATE revocation_events SET created_at = ? WHERE subject = 'john'",
+                Timestamp.from(changedAt));
+        // Older than the access-token lifetime, so no live token can predate it
+        jdbcTemplate.update("UPDATE revocation_events SET created_at = ? WHERE subject = 'jane'",
+                Timestamp.from(Instant.now().minus(Duration.ofHours(2))));
+
+        // Act
+        subscriber.start();
+
+        // Assert
+        assertEquals(1, received.size());
+        assertEquals("john", received.get(0).getSubject());
+        assertEquals(changedAt, received.get(0).getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("Should keep events for the token lifetime even when retention is shorter")
+    void testPurge_RetentionAtLeastTokenLifetime() {
+        // Arrange
+        JdbcInvalidationTransport shortRetention = new JdbcInvalidationTransport(jdbcTemplate,
+                new SimpleMeterRegistry(), 500, Duration.ofSeconds(5), Duration.ZERO, Duration.ofHours(1).toMillis());
+        publisher.publish(userChanged("john"));
+        jdbcTemplate.update("UPDATE revocation_events SET created_at = ?",
+                Timestamp.from(Instant.now().minusSeconds(60)));
+
+        // Act
+        int purged = shortRetention.purge();
+
+        // Assert
+        assertEquals(0, purged);
+    }
+
+    private JdbcInvalidationTransport transport() {
+        return new JdbcInvalidationTransport(jdbcTemplate, new SimpleMeterRegistry(), 500, Duration.ofSeconds(5),
+                Duration.ofHours(1), Duration.ofHours(1).toMillis());
+    }
+
+    private static Invalidation userChanged(String subject) {
+        return Invalidation.builder()
+                .type(Invalidation.Type.USER_CHANGED)
+                .subject(subject)
+                .origin("node-a")
+                .build();
+    }
+
+    private static Invalidation revocation(Instant expiresAt) {
+        return Invalidation.builder()
+                .type(Invalidation.Type.TOKEN_REVOKED)
+                .tokenId(UUID.randomUUID().toString())
+                .expiresAt(expiresAt)
+                .origin("node-a")
+                .build();
+    }
+}
@@ -0,0 +1,335 @@
+package com.ntt.prueba.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ntt.prueba.auth.entity.User;
+import com.ntt.prueba.util.TestDataBuilder;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("JwtService Tests")
+class JwtServiceTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final String OTHER_SECRET = "5A7134743777217A25432A462D4A614E645267556B58703273357638792F423F";
+
+    private JwtService jwtService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 600000L);
+        ReflectionTestUtils.setField(jwtService, "jwtRefreshExpiration", 604800000L);
+        jwtService.initKeyMaterial();
+
+        user = TestDataBuilder.defaultUser().build();
+    }
+
+    @Test
+    @DisplayName("Should generate a token whose claims can be read back")
+    void testGenerateAndExtractClaims() {
+        // Act
+        String token = jwtService.generateToken(user);
+        Claims claims = jwtService.extractAllClaims(token);
+
+        // Assert
+        assertNotNull(token);
+        assertEquals(user.getUsername(), claims.getSubject());
+        assertEquals(List.of("USER"), claims.get("rol"));
+        assertEquals(user.getUsername(), jwtService.extractUsername(token));
+    }
+
+    @Test
+    @DisplayName("Should validate token against the matching user")
+    void testIsTokenValid() {
+        // Arrange
+        String token = jwtService.generateToken(user);
+        UserDetails userDetails = org.springframework.security.core.userdetails.User.builder()
+                .username(user.getUsername())
+                .password(user.getPassword())
+                .roles("USER")
+                .build();
+
+        // Act & Assert
+        assertTrue(jwtService.isTokenValid(token, userDetails));
+    }
+
+    @Test
+    @DisplayName("Should parse id, subject, roles and timestamps in a single pass")
+    void testParseToken() {
+        // Arrange
+        String token = jwtService.generateToken(user);
+
+        // Act
+        ParsedToken parsedToken = jwtService.parseToken(token);
+
+        // Assert
+        assertEquals(user.getUsername(), parsedToken.getSubject());
+        assertNotNull(parsedToken.getTokenId());
+        assertNotEquals(parsedToken.getTokenId(), jwtService.parseToken(jwtService.generateToken(user)).getTokenId());
+        assertEquals(List.of("USER"), parsedToken.getRoles());
+        assertNotNull(parsedToken.getIssuedAt());
+        assertTrue(parsedToken.getExpiresAt().isAfter(parsedToken.getIssuedAt()));
+        assertFalse(parsedToken.isExpired());
+    }
+
+    @Test
+    @DisplayName("Should reject tokens signed with the previous secret after a reload")
+    void testReloadSecret() {
+        // Arrange
+        String oldToken = jwtService.generateToken(user);
+
+        // Act
+        jwtService.reloadSecret(OTHER_SECRET);
+        String newToken = jwtService.generateToken(user);
+
+        // Assert
+        assertEquals(user.getUsername(), jwtService.extractUsername(newToken));
+        assertThrows(SignatureException.class, () -> jwtService.extractAllClaims(oldToken));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "RS256", "ES256", "EdDSA" })
+    @DisplayName("Should sign asymmetrically with a kid that downstream services resolve from the JWKS")
+    void testAsymmetricSigning_VerifiableFromJwks(String algorithm) throws Exception {
+        // Arrange
+        ObjectMapper objectMapper = new ObjectMapper();
+        JwtService asymmetric = asymmetricService(algorithm);
+        String token = asymmetric.generateToken(user);
+        JwkSet jwks = Jwks.setParser().build().parse(objectMapper.writeValueAsString(asymmetric.getJwks()));
+
+        // Act - verify as a downstream service would, with only the published keys
+        Claims claims = Jwts.parser()
+                .keyLocator(header -> jwks.getKeys().stream()
+                        .filter(jwk -> jwk.getId().equals(((ProtectedHeader) header).getKeyId()))
+                        .map(jwk -> ((PublicJwk<?>) jwk).toKey())
+                        .findFirst()
+                        .orElseThrow())
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+
+        // Assert
+        JsonNode header = objectMapper.readTree(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+        assertEquals(algorithm, header.get("alg").asText());
+        assertEquals(jwks.getKeys().iterator().next().getId(), header.get("kid").asText());
+        assertEquals(user.getUsername(), claims.getSubject());
+    }
+
+    @Test
+    @DisplayName("Should keep verifying tokens signed with a rotated key until it is retired")
+    void testRotateKeys_OverlappingWindow() {
+        // Arrange
+        JwtService asymmetric = asymmetricService("ES256");
+        String oldToken = asymmetric.generateToken(user);
+
+        // Act
+        asymmetric.rotateKeys();
+        String newToken = asymmetric.generateToken(user);
+
+        // Assert
+        assertEquals(user.getUsername(), asymmetric.extractUsername(oldToken));
+        assertEquals(user.getUsername(), asymmetric.extractUsername(newToken));
+        assertEquals(2, ((List<?>) asymmetric.getJwks().get("keys")).size());
+
+        // Act - the window closes once access tokens signed with the old key have expired
+        ReflectionTestUtils.setField(asymmetric, "keyMaterial",
+                ((JwtKeyMaterial) ReflectionTestUtils.getField(asymmetric, "keyMaterial"))
+                        .withoutRetired(Instant.now().plusMillis(600001L)));
+
+        // Assert
+        assertThrows(SignatureException.class, () -> asymmetric.extractAllClaims(oldToken));
+        assertEquals(user.getUsername(), asymmetric.extractUsername(newToken));
+        assertEquals(1, ((List<?>) asymmetric.getJwks().get("keys")).size());
+    }
+
+    @Test
+    @DisplayName("Should refuse to rotate a shared HMAC secret in-process")
+    void testRotateKeys_HmacRefused() {
+        // Arrange
+        String token = jwtService.generateToken(user);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> jwtService.rotateKeys());
+        assertEquals(user.getUsername(), jwtService.extractUsername(token));
+    }
+
+    @Test
+    @DisplayName("Should label an HMAC secret with the algorithm its length selects")
+    void testFromSecret_AlgorithmFromKeyLength() {
+        // Arrange
+        String secret256 = Base64.getEncoder().encodeToString(new byte[32]);
+        String secret512 = Base64.getEncoder().encodeToString(new byte[64]);
+
+        // Act
+        JwtKeyMaterial hs256 = JwtKeyMaterial.fromSecret(secret256);
+        JwtKeyMaterial hs384 = JwtKeyMaterial.fromSecret(SECRET);
+        JwtKeyMaterial hs512 = JwtKeyMaterial.fromSecret(secret512);
+
+        // Assert
+        assertEquals(JwtKeyMaterial.HS256, hs256.getAlgorithm());
+        assertEquals(JwtKeyMaterial.HS384, hs384.getAlgorithm());
+        assertEquals(JwtKeyMaterial.HS512, hs512.getAlgorithm());
+    }
+
+    @Test
+    @DisplayName("Should never publish the HMAC secret in the JWKS")
+    void testGetJwks_HmacIsEmpty() {
+        // Act
+        Map<String, Object> jwks = jwtService.getJwks();
+
+        // Assert
+        assertEquals(List.of(), jwks.get("keys"));
+    }
+
+    @Test
+    @DisplayName("Should serve repeated tokens from the verified-token cache and never cache a forged one")
+    void testVerifiedTokenCache() {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        jwtService.setVerifiedTokenCache(new VerifiedTokenCache(100, meterRegistry));
+        String token = jwtService.generateToken(user);
+        String forged = token.substring(0, token.lastIndexOf('.') + 1) + "AAAA" + token.substring(token.lastIndexOf('.') + 5);
+
+        // Act
+        ParsedToken first = jwtService.parseToken(token);
+        ParsedToken second = jwtService.parseToken(token);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(user.getUsername(), jwtService.extractUsername(token));
+        assertThrows(SignatureException.class, () -> jwtService.parseToken(forged));
+        assertThrows(SignatureException.class, () -> jwtService.parseToken(forged));
+        // Two hits for the genuine token; both forged lookups miss because the first was never cached
+        assertEquals(0.4, meterRegistry.get("auth.jwt.verified_cache.hit_ratio").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should drop cached verifications when the secret is reloaded")
+    void testVerifiedTokenCache_InvalidatedOnReload() {
+        // Arrange
+        jwtService.setVerifiedTokenCache(new VerifiedTokenCache(100, new SimpleMeterRegistry()));
+        String token = jwtService.generateToken(user);
+        jwtService.parseToken(token);
+
+        // Act
+        jwtService.reloadSecret(OTHER_SECRET);
+
+        // Assert
+        assertThrows(SignatureException.class, () -> jwtService.parseToken(token));
+    }
+
+    @Test
+    @DisplayName("Should read a bearer header in place with the same claims as the full parser")
+    void testParseToken_InPlaceReader() {
+        // Arrange
+        String token = jwtService.generateToken(user);
+        String header = "Bearer " + token;
+        HmacTokenReader reader = ((JwtKeyMaterial) ReflectionTestUtils.getField(jwtService, "keyMaterial"))
+                .getTokenReader();
+
+        // Act
+        ParsedToken inPlace = reader.read(header, 7, System.currentTimeMillis());
+        ParsedToken full = ParsedToken.fromClaims(jwtService.extractAllClaims(token));
+
+        // Assert
+        assertEquals(full, inPlace);
+        assertEquals(full, jwtService.parseToken(header, 7));
+    }
+
+    @Test
+    @DisplayName("Should carry the issue time to the millisecond through both readers")
+    void testParseToken_MillisecondIssuedAt() {
+        // Arrange
+        long before = System.currentTimeMillis();
+        String token = jwtService.generateToken(user);
+        long after = System.currentTimeMillis();
+
+        // Act
+        ParsedToken inPlace = jwtService.parseToken(token);
+        ParsedToken full = ParsedToken.fromClaims(jwtService.extractAllClaims(token));
+
+        // Assert
+        assertTrue(inPlace.getIssuedAt().toEpochMilli() >= before && inPlace.getIssuedAt().toEpochMilli() <= after);
+        assertEquals(inPlace.getIssuedAt(), full.getIssuedAt());
+    }
+
+    @Test
+    @DisplayName("Should leave tampered and expired tokens to the full parser")
+    void testParseToken_InPlaceReaderFallsBack() {
+        // Arrange
+        String token = jwtService.generateToken(user);
+        int payloadStart = token.indexOf('.') + 1;
+        String tampered = token.substring(0, payloadStart) + (token.charAt(payloadStart) == 'e' ? 'f' : 'e')
+                + token.substring(payloadStart + 1);
+        HmacTokenReader reader = ((JwtKeyMaterial) ReflectionTestUtils.getField(jwtService, "keyMaterial"))
+                .getTokenReader();
+
+        // Act & Assert
+        assertNull(reader.read(tampered, 0, System.currentTimeMillis()));
+        assertThrows(SignatureException.class, () -> jwtService.parseToken("Bearer " + tampered, 7));
+        assertNull(reader.read(token, 0, System.currentTimeMillis() + 600001L));
+    }
+
+    @Test
+    @DisplayName("Should reject a signature with non-zero unused bits in its last base64url character")
+    void testParseToken_InPlaceReaderRejectsNonCanonicalSignature() {
+        // Arrange - a 32-byte HS256 signature is 43 characters, whose last one carries 2 unused bits
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        JwtKeyMaterial keyMaterial = JwtKeyMaterial.fromSecret(Base64.getEncoder().encodeToString(new byte[32]));
+        String token = Jwts.builder()
+                .header().keyId(keyMaterial.getActiveKeyId()).and()
+                .subject(user.getUsername())
+                .expiration(new Date(System.currentTimeMillis() + 600000L))
+                .signWith(keyMaterial.getSigningKey())
+                .compact();
+        int last = alphabet.indexOf(token.charAt(token.length() - 1));
+        String nonCanonical = token.substring(0, token.length() - 1) + alphabet.charAt(last | 1);
+        HmacTokenReader reader = keyMaterial.getTokenReader();
+
+        // Act & Assert
+        assertNotNull(reader.read(token, 0, System.currentTimeMillis()));
+        assertNull(reader.read(nonCanonical, 0, System.currentTimeMillis()));
+    }
+
+    private static JwtService asymmetricService(String algorithm) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "algorithm", algorithm);
+        ReflectionTestUtils.setField(service, "jwtExpiration", 600000L);
+        ReflectionTestUtils.setField(service, "jwtRefreshExpiration", 604800000L);
+        service.initKeyMaterial();
+        return service;
+    }
+}
@@ -0,0 +1,140 @@
+package com.ntt.prueba.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ntt.prueba.exception.exception.ServiceOverloadedException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("PasswordHashingService Tests")
+class PasswordHashingServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingService hashingService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hashingService = service("bcrypt", 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashingService.destroy();
+    }
+
+    @Test
+    @DisplayName("Should encode with the algorithm prefix and match the raw password")
+    void testEncode_Prefixed() {
+        // Act
+        String encoded = hashingService.encode("SecurePass123@");
+
+        // Assert
+        assertTrue(encoded.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(hashingService.matches("SecurePass123@", encoded));
+        assertFalse(hashingService.matches("WrongPass123@", encoded));
+        assertFalse(hashingService.upgradeEncoding(encoded));
+    }
+
+    @Test
+    @DisplayName("Should match legacy unprefixed BCrypt hashes and flag them for rehash")
+    void testMatches_LegacyHash() {
+        // Arrange
+        String legacy = new BCryptPasswordEncoder(5).encode("SecurePass123@");
+
+        // Act & Assert
+        assertTrue(hashingService.matches("SecurePass123@", legacy));
+        assertTrue(hashingService.upgradeEncoding(legacy));
+    }
+
+    @Test
+    @DisplayName("Should flag hashes with a lower cost or another algorithm for rehash")
+    void testUpgradeEncoding_OutdatedCost() {
+        // Arrange
+        PasswordHashingService weakerService = service("bcrypt", 4);
+        String weaker = weakerService.encode("SecurePass123@");
+        weakerService.destroy();
+        String pbkdf2 = "{pbkdf2}" + PasswordCostCalibrator.pbkdf2(1000).encode("SecurePass123@");
+
+        // Act & Assert
+        assertTrue(hashingService.upgradeEncoding(weaker));
+        assertTrue(hashingService.matches("SecurePass123@", pbkdf2));
+        assertTrue(hashingService.upgradeEncoding(pbkdf2));
+    }
+
+    @Test
+    @DisplayName("Should flag PBKDF2 hashes made with fewer iterations, or with no stored count, for rehash")
+    void testUpgradeEncoding_Pbkdf2Iterations() {
+        // Arrange
+        PasswordHashingService pbkdf2Service = new PasswordHashingService("pbkdf2", false, Duration.ofMillis(250), 5,
+                1, 1000, 1, 10, 1, meterRegistry);
+        String current = pbkdf2Service.encode("SecurePass123@");
+        String fewer = "{pbkdf2}" + new IterationAwarePbkdf2PasswordEncoder(500).encode("SecurePass123@");
+        String unversioned = "{pbkdf2}" + PasswordCostCalibrator.pbkdf2(1000).encode("SecurePass123@");
+
+        // Act & Assert
+        assertTrue(current.startsWith("{pbkdf2}1000$"));
+        assertFalse(pbkdf2Service.upgradeEncoding(current));
+        assertTrue(pbkdf2Service.matches("SecurePass123@", fewer));
+        assertFalse(pbkdf2Service.matches("WrongPass123@", fewer));
+        assertTrue(pbkdf2Service.upgradeEncoding(fewer));
+        assertTrue(pbkdf2Service.matches("SecurePass123@", unversioned));
+        assertTrue(pbkdf2Service.upgradeEncoding(unversioned));
+        pbkdf2Service.destroy();
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown algorithm")
+    void testConstructor_UnknownAlgorithm() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> service("md5", 5));
+    }
+
+    @Test
+    @DisplayName("Should never calibrate below the configured minimum strength")
+    void testCalibrate_RespectsFloor() {
+        // Act & Assert
+        assertEquals(5, PasswordCostCalibrator.bcryptStrength(Duration.ofNanos(1), 5));
+    }
+
+    @Test
+    @DisplayName("Should fail fast when the hashing queue is full")
+    void testEncode_QueueFull() throws Exception {
+        // Arrange
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(hashingService, "executor");
+        CountDownLatch release = new CountDownLatch(1);
+        // One task occupies the single worker, the rest fill the queue
+        for (int i = 0; i < 11; i++) {
+            executor.submit(() -> {
+                release.await();
+                return null;
+            });
+        }
+
+        // Act & Assert
+        ServiceOverloadedException ex = assertThrows(ServiceOverloadedException.class,
+                () -> hashingService.encode("SecurePass123@"));
+        assertEquals(1, ex.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("auth.password.rejected").counter().count());
+        release.countDown();
+    }
+
+    private PasswordHashingService service(String algorithm, int bcryptStrength) {
+        return new PasswordHashingService(algorithm, false, Duration.ofMillis(250), bcryptStrength, 1, 1000, 1, 10,
+                1, meterRegistry);
+    }
+}
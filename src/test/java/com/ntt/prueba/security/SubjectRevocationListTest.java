@@ -0,0 +1,75 @@
+package com.ntt.prueba.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@DisplayName("SubjectRevocationList Tests")
+class SubjectRevocationListTest {
+
+    private SubjectRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        revocationList = new SubjectRevocationList();
+        ReflectionTestUtils.setField(revocationList, "jwtExpiration", 60000L);
+    }
+
+    @Test
+    @DisplayName("Should reject a token issued a millisecond before the revocation but accept the re-login")
+    void testIsRevoked_MillisecondPrecision() {
+        // Arrange
+        Instant before = Instant.now().truncatedTo(ChronoUnit.MILLIS).minusMillis(1);
+
+        // Act
+        revocationList.revoke("john");
+        Instant relogin = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        // Assert
+        assertTrue(revocationList.isRevoked(token("john", before)));
+        assertFalse(revocationList.isRevoked(token("john", relogin)));
+        assertFalse(revocationList.isRevoked(token("jane", before)));
+    }
+
+    @Test
+    @DisplayName("Should keep the latest revocation when an older one is redelivered")
+    void testRevoke_KeepsLatest() {
+        // Arrange
+        Instant changedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS).minusSeconds(30);
+        revocationList.revoke("john", changedAt);
+        Instant relogin = changedAt.plusSeconds(10);
+
+        // Act
+        revocationList.revoke("john", changedAt.minusSeconds(10));
+
+        // Assert
+        assertTrue(revocationList.isRevoked(token("john", changedAt.minusMillis(1))));
+        assertFalse(revocationList.isRevoked(token("john", relogin)));
+    }
+
+    @Test
+    @DisplayName("Should forget revocations older than the token lifetime on prune")
+    void testPrune() {
+        // Arrange
+        ReflectionTestUtils.setField(revocationList, "jwtExpiration", -1000L);
+        revocationList.revoke("john");
+        Instant before = Instant.now().minusSeconds(10);
+
+        // Act
+        revocationList.prune();
+
+        // Assert
+        assertFalse(revocationList.isRevoked(token("john", before)));
+    }
+
+    private static ParsedToken token(String subject, Instant issuedAt) {
+        return ParsedToken.builder().subject(subject).issuedAt(issuedAt).build();
+    }
+}
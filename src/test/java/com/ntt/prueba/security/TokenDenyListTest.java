@@ -0,0 +1,80 @@
+package com.ntt.prueba.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("TokenDenyList Tests")
+class TokenDenyListTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenDenyList denyList;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        denyList = new TokenDenyList(16, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should report only revoked token ids")
+    void testRevoke_IsRevoked() {
+        // Arrange
+        String revoked = UUID.randomUUID().toString();
+
+        // Act
+        denyList.revoke(revoked, Instant.now().plusSeconds(600));
+
+        // Assert
+        assertTrue(denyList.isRevoked(revoked));
+        assertFalse(denyList.isRevoked(UUID.randomUUID().toString()));
+        assertFalse(denyList.isRevoked(null));
+        assertEquals(1.0, meterRegistry.get("auth.revocation.deny_list.size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should keep every entry while growing past the initial capacity")
+    void testRevoke_Grows() {
+        // Arrange
+        List<String> tokenIds = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            tokenIds.add(UUID.randomUUID().toString());
+        }
+
+        // Act
+        tokenIds.forEach(tokenId -> denyList.revoke(tokenId, Instant.now().plusSeconds(600)));
+
+        // Assert
+        assertEquals(1000, denyList.size());
+        assertTrue(tokenIds.stream().allMatch(denyList::isRevoked));
+    }
+
+    @Test
+    @DisplayName("Should prune entries once their token has expired")
+    void testPrune_DropsExpired() {
+        // Arrange
+        String expired = UUID.randomUUID().toString();
+        String live = UUID.randomUUID().toString();
+        denyList.revoke(expired, Instant.now().minusSeconds(60));
+        denyList.revoke(live, Instant.now().plusSeconds(600));
+
+        // Act
+        int removed = denyList.prune();
+
+        // Assert
+        assertEquals(1, removed);
+        assertFalse(denyList.isRevoked(expired));
+        assertTrue(denyList.isRevoked(live));
+    }
+}
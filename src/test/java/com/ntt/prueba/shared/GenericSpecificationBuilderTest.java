@@ -0,0 +1,139 @@
+package com.ntt.prueba.shared;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.Builder;
+import lombok.Value;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GenericSpecificationBuilder Tests")
+class GenericSpecificationBuilderTest {
+
+    @Mock
+    private Root<Object> root;
+
+    @Mock
+    private CriteriaQuery<?> query;
+
+    @Mock
+    private CriteriaBuilder criteriaBuilder;
+
+    @Mock
+    private Path<String> path;
+
+    @Mock
+    private Predicate predicate;
+
+    @Mock
+    private Predicate otherPredicate;
+
+    private final GenericSpecificationBuilder<Object> builder = new GenericSpecificationBuilder<>();
+
+    @Test
+    @DisplayName("Should skip static and synthetic fields")
+    void testBuild_SkipsStaticAndSyntheticFields() {
+        // Arrange - the captured local becomes a synthetic field of the anonymous class
+        String label = "filter";
+        Object filter = new Object() {
+
+            static final String DEFAULT_NAME = "unused";
+
+            private final String name = "ada";
+
+            @Override
+            public String toString() {
+                return label + " " + name;
+            }
+        };
+        assertTrue(Arrays.stream(filter.getClass().getDeclaredFields()).anyMatch(Field::isSynthetic));
+        doReturn(path).when(root).get(anyString());
+        when(criteriaBuilder.like(path, "%ada%", '\\')).thenReturn(predicate);
+
+        // Act
+        Specification<Object> spec = builder.build(filter);
+        Predicate result = spec.toPredicate(root, query, criteriaBuilder);
+
+        // Assert
+        assertSame(predicate, result);
+        verify(root).get("name");
+        verifyNoMoreInteractions(root);
+    }
+
+    @Test
+    @DisplayName("Should read the private fields of a Lombok value class")
+    void testBuild_ReadsLombokFields() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        doReturn(path).when(root).get(anyString());
+        when(criteriaBuilder.equal(path, id)).thenReturn(predicate);
+        when(criteriaBuilder.like(path, "john%", '\\')).thenReturn(otherPredicate);
+        when(criteriaBuilder.and(new Predicate[] { predicate, otherPredicate })).thenReturn(predicate);
+
+        // Act
+        Specification<Object> spec = builder.build(LombokFilter.builder().id(id).username("john").build());
+        Predicate result = spec.toPredicate(root, query, criteriaBuilder);
+
+        // Assert
+        assertSame(predicate, result);
+        verify(root).get("id");
+        verify(root).get("username");
+    }
+
+    @Test
+    @DisplayName("Should treat a non-empty collection as present and an empty one as absent")
+    void testBuild_CollectionPresence() {
+        // Arrange
+        List<String> names = List.of("ADMIN", "USER");
+        doReturn(path).when(root).get(anyString());
+        when(path.in(names)).thenReturn(predicate);
+
+        // Act
+        Predicate empty = builder.build(new RolesFilter(List.of())).toPredicate(root, query, criteriaBuilder);
+        Predicate present = builder.build(new RolesFilter(names)).toPredicate(root, query, criteriaBuilder);
+
+        // Assert
+        assertNull(empty);
+        assertSame(predicate, present);
+        verify(root).get("roles");
+        verifyNoInteractions(criteriaBuilder);
+    }
+
+    @Value
+    @Builder
+    private static class LombokFilter {
+
+        @FilterOperator(FilterOperation.EQUAL)
+        UUID id;
+
+        @FilterOperator(FilterOperation.PREFIX)
+        String username;
+    }
+
+    private record RolesFilter(@FilterOperator(FilterOperation.IN) List<String> roles) {
+    }
+}
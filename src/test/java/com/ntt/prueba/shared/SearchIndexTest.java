@@ -0,0 +1,79 @@
+package com.ntt.prueba.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import com.ntt.prueba.exception.exception.BaseException;
+
+@DisplayName("SearchIndex Tests")
+class SearchIndexTest {
+
+    private SearchIndex index;
+    private UUID ada;
+    private UUID adam;
+    private UUID adaLong;
+    private UUID grace;
+
+    @BeforeEach
+    void setUp() {
+        index = new SearchIndex();
+        ada = UUID.randomUUID();
+        adam = UUID.randomUUID();
+        adaLong = UUID.randomUUID();
+        grace = UUID.randomUUID();
+        index.put(adam, "adamsmith@example.com Adam Smith");
+        index.put(ada, "ada@example.com Ada Lovelace");
+        index.put(adaLong, "ada.byron@example.com Augusta Ada Byron King");
+        index.put(grace, "grace@example.com Grace Hopper");
+    }
+
+    @Test
+    @DisplayName("Should rank whole-word matches before prefixes, shorter documents first")
+    void testSearch_Ranked() {
+        // Act
+        SearchIndex.Hits hits = index.search("ADA", 0, 10);
+        SearchIndex.Hits page = index.search("ada", 1, 1);
+
+        // Assert
+        assertEquals(List.of(ada, adaLong, adam), hits.ids());
+        assertEquals(3, hits.total());
+        assertEquals(List.of(adaLong), page.ids());
+    }
+
+    @Test
+    @DisplayName("Should match every query word as a substring, ignoring accents, and forget removed documents")
+    void testSearch_AllWordsAccentsAndRemove() {
+        // Arrange
+        UUID jose = UUID.randomUUID();
+        index.put(jose, "jose@example.com José Martínez");
+
+        // Act
+        List<UUID> accented = index.search("martinez JOSÉ", 0, 10).ids();
+        List<UUID> bothWords = index.search("ada yron", 0, 10).ids();
+        index.remove(jose);
+        index.put(ada, "ada@example.com Ada King");
+
+        // Assert
+        assertEquals(List.of(jose), accented);
+        assertEquals(List.of(adaLong), bothWords);
+        assertEquals(0, index.search("martinez", 0, 10).total());
+        assertEquals(0, index.search("lovelace", 0, 10).total());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    @DisplayName("Should reject queries without a word of at least three characters")
+    void testSearch_TooShort() {
+        // Act & Assert
+        BaseException ex = assertThrows(BaseException.class, () -> index.search("a b", 0, 10));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getHttpStatus());
+    }
+}
@@ -14,6 +14,7 @@ import com.ntt.prueba.auth.entity.Phone;
 import com.ntt.prueba.auth.entity.RefreshToken;
 import com.ntt.prueba.auth.entity.Role;
 import com.ntt.prueba.auth.entity.User;
+import com.ntt.prueba.security.OpaqueTokens;
 
 /**
  * Utility class for building test data objects
@@ -135,17 +136,23 @@ public class TestDataBuilder {
     // ==================== AuthenticationAudit Builders ====================
 
     public static RefreshToken.RefreshTokenBuilder<?, ?> defaultRefreshToken(User user) {
+        String token = OpaqueTokens.generate();
         return RefreshToken.builder()
                 .id(UUID.randomUUID())
-                .token(UUID.randomUUID().toString())
+                .token(token)
+                .tokenHash(OpaqueTokens.digest(token))
+                .familyId(UUID.randomUUID())
                 .user(user)
                 .expiryDate(Instant.now().plusSeconds(86400)); // 24 hours
     }
 
     public static RefreshToken.RefreshTokenBuilder<?, ?> expiredRefreshToken(User user) {
+        String token = OpaqueTokens.generate();
         return RefreshToken.builder()
                 .id(UUID.randomUUID())
-                .token(UUID.randomUUID().toString())
+                .token(token)
+                .tokenHash(OpaqueTokens.digest(token))
+                .familyId(UUID.randomUUID())
                 .user(user)
                 .expiryDate(Instant.now().minusSeconds(3600)); // Expired 1 hour ago
     }